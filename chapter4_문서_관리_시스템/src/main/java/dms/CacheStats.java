@@ -0,0 +1,52 @@
+package dms;
+
+/**
+ * 캐시 사용 통계
+ */
+public class CacheStats {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long invalidations;
+
+    CacheStats(final long hits, final long misses, final long evictions, final long invalidations) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.invalidations = invalidations;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    // 용량을 넘어 버려진 항목 수
+    public long getEvictions() {
+        return evictions;
+    }
+
+    // 문서 변경으로 결과가 바뀔 수 있어 버려진 항목 수
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    // 조회가 없었다면 0
+    public double getHitRate() {
+        final long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+            "hits=" + hits +
+            ", misses=" + misses +
+            ", evictions=" + evictions +
+            ", invalidations=" + invalidations +
+            '}';
+    }
+}
@@ -0,0 +1,178 @@
+package dms;
+
+import dms.errors.UnknownFileTypeException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 디렉토리를 감시하여 변경된 파일만 문서 관리 시스템에 반영한다.
+ *
+ * - WatchService 의 이벤트로 변경된 파일을 알아내므로 디렉토리 전체를 다시 읽지 않는다.
+ * - 파일을 쓰는 동안에는 이벤트가 여러 번 오므로, 마지막 이벤트 후 debounce 동안 조용해지면 한 번만 임포트한다.
+ * - 처리 시점에 파일이 없다면 삭제된 것으로 보고 문서를 제거한다.
+ * - 이벤트가 유실되었다면(OVERFLOW) 그때만 디렉토리를 다시 읽는다.
+ *
+ * 확장자를 처리할 임포터가 없는 파일은 무시한다.
+ */
+public class DirectoryWatcher implements Closeable {
+    private final DocumentManagementSystem system;
+    private final Path directory;
+    private final long debounceNanos;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    // 처리할 경로와 처리 예정 시각, 감시 스레드에서만 사용한다.
+    private final Map<Path, Long> pending = new HashMap<>();
+    private final Map<String, Exception> failures = new ConcurrentHashMap<>();
+
+    private DirectoryWatcher(final DocumentManagementSystem system, final Path directory,
+                             final Duration debounce, final WatchService watchService) {
+        this.system = system;
+        this.directory = directory;
+        this.debounceNanos = debounce.toNanos();
+        this.watchService = watchService;
+        this.thread = new Thread(this::run, "dms-watcher-" + directory.getFileName());
+        this.thread.setDaemon(true);
+    }
+
+    public static DirectoryWatcher start(final DocumentManagementSystem system, final Path directory,
+                                         final Duration debounce) throws IOException {
+        final WatchService watchService = directory.getFileSystem().newWatchService();
+        try {
+            directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            watchService.close();
+            throw e;
+        }
+
+        final DirectoryWatcher watcher = new DirectoryWatcher(system, directory, debounce, watchService);
+        watcher.thread.start();
+        return watcher;
+    }
+
+    // 마지막으로 반영에 실패한 파일별 예외, 이후 반영에 성공하면 지워진다.
+    public Map<String, Exception> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                final WatchKey key = pending.isEmpty()
+                    ? watchService.take()
+                    : watchService.poll(Math.max(0, nextDeadline() - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (key != null) {
+                    collect(key);
+                }
+                processDue();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // close() 로 종료
+        }
+    }
+
+    private void collect(final WatchKey key) {
+        final long deadline = System.nanoTime() + debounceNanos;
+        for (final WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                rescan(deadline);
+            } else {
+                pending.put(directory.resolve((Path) event.context()), deadline);
+            }
+        }
+        key.reset();
+    }
+
+    private void rescan(final long deadline) {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(Files::isRegularFile).forEach(file -> pending.put(file, deadline));
+        } catch (IOException e) {
+            failures.put(directory.toString(), e);
+        }
+    }
+
+    private long nextDeadline() {
+        return Collections.min(pending.values());
+    }
+
+    // 처리 시점이 된 파일을 한 번에 임포트하여 검색에 한 번만 공개한다.
+    private void processDue() {
+        final long now = System.nanoTime();
+        final List<String> imports = new ArrayList<>();
+        final Iterator<Map.Entry<Path, Long>> entries = pending.entrySet().iterator();
+        while (entries.hasNext()) {
+            final Map.Entry<Path, Long> entry = entries.next();
+            if (entry.getValue() - now <= 0) {
+                entries.remove();
+                final Path file = entry.getKey();
+                if (Files.isRegularFile(file)) {
+                    imports.add(file.toString());
+                } else if (Files.notExists(file)) {
+                    remove(file.toString());
+                }
+            }
+        }
+        importAll(imports);
+    }
+
+    private void importAll(final List<String> paths) {
+        if (paths.isEmpty()) {
+            return;
+        }
+        try {
+            final Map<String, Exception> importFailures = system.importFiles(paths).getFailures();
+            for (final String path : paths) {
+                final Exception failure = importFailures.get(path);
+                if (failure == null || failure instanceof UnknownFileTypeException) {
+                    // 문서가 아닌 파일은 무시한다.
+                    failures.remove(path);
+                } else {
+                    failures.put(path, failure);
+                }
+            }
+        } catch (RuntimeException e) {
+            paths.forEach(path -> failures.put(path, e));
+        }
+    }
+
+    private void remove(final String path) {
+        try {
+            system.remove(path);
+            failures.remove(path);
+        } catch (IOException | RuntimeException e) {
+            failures.put(path, e);
+        }
+    }
+}
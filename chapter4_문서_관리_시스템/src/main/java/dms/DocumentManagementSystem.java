@@ -2,62 +2,552 @@ package dms;
 
 import dms.document.*;
 import dms.errors.UnknownFileTypeException;
+import dms.index.DocumentIndex;
+import dms.index.FacetRequest;
+import dms.index.QueryPlan;
+import dms.index.TopDocs;
 import dms.query.Query;
+import dms.store.DocumentStore;
+import dms.store.StoredDocument;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-public class DocumentManagementSystem {
-    private final Map<String, Importer> importers = new HashMap<>();
-    private final List<Document> documents = new ArrayList<>();
+/**
+ * 문서 관리 시스템
+ *
+ * 같은 경로를 다시 임포트하면 이전 문서를 대체한다.
+ * 대체되거나 삭제된 문서는 문서 번호 자리에 null 을 남겨 검색에서 제외하고,
+ * 색인은 새 문서만 추가하므로 변경된 파일 수에 비례하는 비용만 든다.
+ * 제거된 문서는 바로 관련도(BM25) 통계에서 빠진다. 빈 자리가 COMPACT_MIN_TOMBSTONES 이상이면서
+ * 남은 문서보다 많아지면 문서 번호를 다시 매기고 색인을 다시 만들어 빈 자리와 남은 포스팅을 정리한다.
+ * 다시 만드는 비용은 그동안 생긴 빈 자리 수 이하이므로 변경 하나당 비용은 일정하고,
+ * 두 복제본의 크기는 남은 문서 수의 두 배 정도를 넘지 않는다.
+ *
+ * 파일 내용의 해시(xxHash64)를 함께 기록하여,
+ * - 같은 경로의 내용이 바뀌지 않았다면 기존 문서를 그대로 돌려주고
+ * - 다른 경로라도 같은 임포터로 읽은 같은 내용이라면 파싱하지 않고 캐시된 속성을 쓴다.
+ *
+ * 검색은 임포트와 동시에 락 없이 수행된다.
+ * - 문서 목록과 색인은 두 벌(Replica)을 두고 Left-Right 방식으로 공개한다.
+ *   검색은 공개된 복제본을 읽고, 그 복제본은 검색이 끝날 때까지 변경되지 않는다.
+ *   빈 문서 번호와 남은 포스팅은 두 복제본에 모두 쌓이므로, 색인을 다시 만드는 정리도 두 복제본에 같은 시점에 적용한다.
+ * - 쓰기(임포트, 제거)는 이 객체의 락으로 한 번에 하나씩 수행한다.
+ *   여러 파일의 변경은 모아서 한 번에 공개하므로 공개 비용은 배치마다 한 번 든다.
+ * - 파일을 읽고 문서를 만드는 일은 락 밖에서 수행한다.
+ * - 경로별 문서와 문서 번호는 저장소 반영(flush)이 성공한 뒤 공개와 함께 바꾼다.
+ *   저장소 반영이 실패하면 메모리의 상태는 이전 그대로 남는다.
+ *
+ * 반복되는 검색은 캐시된 결과(일치하는 문서 번호)를 쓴다.
+ * 변경을 공개할 때마다 추가되거나 제거된 문서와 관련된 결과만 버린다.
+ */
+public class DocumentManagementSystem implements Closeable {
+    // 읽기는 파일 I/O 대기가 섞여 있으므로 코어 수보다 넉넉하게 스레드를 둔다.
+    private static final int READ_THREADS = Runtime.getRuntime().availableProcessors() * 2;
+    private static final int READ_QUEUE_SIZE = 256;
+    // 임포터마다 두는 추출 스레드 수
+    private static final int EXTRACT_THREADS = Runtime.getRuntime().availableProcessors();
+    // 임포터마다 추출을 기다릴 수 있는 파일 수
+    private static final int EXTRACT_QUEUE_SIZE = 64;
+    private static final Duration WATCH_DEBOUNCE = Duration.ofMillis(50);
+    private static final int IMPORT_CACHE_SIZE = 4096;
+    private static final int QUERY_CACHE_SIZE = 256;
+    // 빈 문서 번호가 이보다 적다면 색인을 다시 만들지 않는다.
+    static final int COMPACT_MIN_TOMBSTONES = 256;
+
+    // 임포트 스레드와 등록이 겹칠 수 있으므로 동시성 맵을 쓴다.
+    private final Map<String, AsyncImporter> importers = new ConcurrentHashMap<>();
+    private final ImportPipeline pipeline =
+        new ImportPipeline(READ_THREADS, READ_QUEUE_SIZE, EXTRACT_THREADS, EXTRACT_QUEUE_SIZE,
+            new ImportCache(IMPORT_CACHE_SIZE));
+    private final QueryCache queryCache = new QueryCache(QUERY_CACHE_SIZE);
+    private final LeftRight<Replica> replicas = new LeftRight<>(new Replica(), new Replica());
+
+    // 쓰기 쪽 상태, 이 객체의 락으로 보호한다.
+    private final Map<String, Entry> entries = new HashMap<>();
+    private int nextOrdinal;
+    // 공개한 변경 수, 복제본의 버전과 같다.
+    private long version;
+    // 디스크 저장소, 메모리에만 보관한다면 null
+    private final DocumentStore store;
 
     public DocumentManagementSystem() {
-        importers.put("letter", new LetterImporter());
-        importers.put("report", new ReportImporter());
-        importers.put("jpg", new ImageImporter());
-        importers.put("invoice", new InvoiceImporter());
+        this((DocumentStore) null);
     }
 
-    // 파일 경로를 받아 해당 파일을 임포트한다.
-    public void importFile(final String path) throws IOException {
-        final File file = new File(path);
-        if (!file.exists()) {
-            throw new FileNotFoundException(path);
+    // 저장소 디렉토리에 보관된 문서를 불러온다.
+    // 임포트한 문서는 저장소에도 기록되며, 수정되지 않은 파일은 다시 임포트하지 않는다.
+    public DocumentManagementSystem(final Path storeDirectory) throws IOException {
+        this(DocumentStore.open(storeDirectory));
+    }
+
+    DocumentManagementSystem(final DocumentStore store) {
+        // 기본 임포터도 META-INF/services 에 등록되어 있다.
+        for (final AsyncImporter importer : ServiceLoader.load(AsyncImporter.class)) {
+            importer.extensions().forEach(extension -> importers.put(extension, importer));
         }
 
-        final int separatorIndex = path.lastIndexOf(".");
-        if (separatorIndex != -1) {
-            if (separatorIndex == path.length()) {
-                throw new UnknownFileTypeException("No Extension found For file: " + path);
+        this.store = store;
+        if (store != null) {
+            final List<Update> updates = new ArrayList<>();
+            for (final StoredDocument stored : store.documents()) {
+                final Long contentHash = stored.getContentHash().isPresent() ? stored.getContentHash().getAsLong() : null;
+                updates.add(new Update(stored.getPath(), stored.getDocument(), contentHash));
+            }
+            commit(updates);
+        }
+    }
+
+    // 확장자에 임포터를 등록한다. 같은 확장자의 기존 임포터는 대체된다.
+    // 텍스트 문서는 new TextImporter(ExtractionSpec) 으로 클래스 없이 등록할 수 있다.
+    public void registerImporter(final String extension, final Importer importer) {
+        importers.put(extension, importer instanceof AsyncImporter
+            ? (AsyncImporter) importer
+            : AsyncImporter.of(importer, extension));
+    }
+
+    // 비동기 임포터를 extensions 의 모든 확장자에 등록한다.
+    public void registerImporter(final AsyncImporter importer) {
+        importer.extensions().forEach(extension -> importers.put(extension, importer));
+    }
+
+    // 파일 경로를 받아 해당 파일을 임포트하고 임포트된 문서를 반환한다.
+    // 이미 임포트한 경로라면 내용이 같을 때는 기존 문서를 반환하고, 바뀌었다면 새 문서로 대체한다.
+    public Document importFile(final String path) throws IOException {
+        final Document unchanged = unchangedDocument(path);
+        if (unchanged != null) {
+            return unchanged;
+        }
+        final ImportedFile imported = readDocument(path);
+        synchronized (this) {
+            final List<Update> updates = new ArrayList<>(1);
+            final Document document = publish(path, imported, updates);
+            flush();
+            commit(updates);
+            return document;
+        }
+    }
+
+    // 경로의 문서를 제거한다. 임포트하지 않은 경로라면 false
+    public synchronized boolean remove(final String path) throws IOException {
+        if (!entries.containsKey(path)) {
+            return false;
+        }
+        if (store != null) {
+            store.delete(path);
+            store.flush();
+        }
+        commit(Collections.singletonList(new Update(path, null, null)));
+        return true;
+    }
+
+    // 디렉토리를 감시하여 추가되거나 수정된 파일을 임포트하고, 삭제된 파일은 제거한다.
+    // 이미 있던 파일은 임포트하지 않으므로 필요하면 importDirectory 를 먼저 호출한다.
+    public DirectoryWatcher watchDirectory(final String directory) throws IOException {
+        return DirectoryWatcher.start(this, Paths.get(directory), WATCH_DEBOUNCE);
+    }
+
+    // 여러 파일을 임포트 파이프라인으로 병렬 임포트한다.
+    // 실패한 파일은 예외를 던지지 않고 결과에 파일별로 기록한다.
+    // 저장소 반영(flush)이 실패하면 배치의 문서는 공개되지 않으며, 그 실패를 배치의 모든 파일에 기록한다.
+    public ImportResult importFiles(final Collection<String> paths) {
+        final List<Document> imported = new ArrayList<>();
+        final Map<String, Exception> failures = new LinkedHashMap<>();
+        if (paths.isEmpty()) {
+            return new ImportResult(imported, failures);
+        }
+
+        // 파이프라인이 가득 차면 제출이 기다리므로 파일이 많아도 처리 중인 파일 수는 제한된다.
+        final Map<String, CompletableFuture<ImportedFile>> futures = new LinkedHashMap<>();
+        for (final String path : paths) {
+            if (unchangedDocument(path) == null) {
+                try {
+                    futures.put(path, submit(path));
+                } catch (IOException | RuntimeException e) {
+                    failures.put(path, e);
+                }
             }
-            final String extension = path.substring(separatorIndex + 1);
-            final Importer importer = importers.get(extension);
-            if (importer == null) {
-                throw new UnknownFileTypeException("For file: " + path);
+        }
+
+        final Map<String, ImportedFile> readDocuments = new LinkedHashMap<>();
+        for (final Map.Entry<String, CompletableFuture<ImportedFile>> entry : futures.entrySet()) {
+            try {
+                readDocuments.put(entry.getKey(), await(entry.getValue()));
+            } catch (IOException | RuntimeException e) {
+                failures.put(entry.getKey(), e);
             }
+        }
 
-            final Document document = importer.importFile(file);
-            documents.add(document);
-        } else {
-            throw new UnknownFileTypeException("No Extension found For file: " + path);
+        // 파이프라인은 문서를 만들기만 하고, 저장소와 색인 반영은 호출 스레드에서 한 번에 수행한다.
+        synchronized (this) {
+            final List<Update> updates = new ArrayList<>();
+            final List<String> published = new ArrayList<>();
+            for (final Map.Entry<String, ImportedFile> entry : readDocuments.entrySet()) {
+                try {
+                    imported.add(publish(entry.getKey(), entry.getValue(), updates));
+                    published.add(entry.getKey());
+                } catch (IOException e) {
+                    failures.put(entry.getKey(), e);
+                }
+            }
+            try {
+                flush();
+            } catch (IOException e) {
+                published.forEach(path -> failures.put(path, e));
+                imported.clear();
+                return new ImportResult(imported, failures);
+            }
+            commit(updates);
+        }
+        return new ImportResult(imported, failures);
+    }
+
+    // 디렉토리 내의 모든 파일을 병렬로 임포트한다.
+    public ImportResult importDirectory(final String directory) throws IOException {
+        final Path root = Paths.get(directory);
+        if (!Files.isDirectory(root)) {
+            throw new FileNotFoundException(directory);
+        }
+
+        try (Stream<Path> files = Files.list(root)) {
+            return importFiles(files
+                .filter(Files::isRegularFile)
+                .map(Path::toString)
+                .sorted()
+                .collect(Collectors.toList()));
         }
     }
 
     // 문서관리 시스템에 저장된 모든 문서를 반환한다.
     public List<Document> contents() {
-        return documents;
+        return replicas.read(replica -> Collections.unmodifiableList(replica.documents.stream()
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList())));
     }
 
     // 문서내 검색을 수행한다.
+    // 색인으로 후보 문서를 좁힌 뒤 후보만 쿼리로 확인한다.
     public List<Document> search(final String query) {
-        return documents.stream()
-            .filter(Query.parse(query))
+        final Query parsed = queryCache.parse(query);
+        return replicas.read(replica -> {
+            final int[] matches = matches(replica, parsed);
+            final List<Document> documents = new ArrayList<>(matches.length);
+            for (final int ordinal : matches) {
+                documents.add(replica.documents.get(ordinal));
+            }
+            return documents;
+        });
+    }
+
+    // 관련도(BM25) 순으로 검색하여 offset 부터 limit 개의 결과를 반환한다.
+    // 상위 offset + limit 개만 골라내므로 일치 문서가 많아도 그만큼만 결과로 만든다.
+    public SearchPage search(final String query, final int offset, final int limit) {
+        return search(query, offset, limit, FacetRequest.none());
+    }
+
+    // 검색과 함께 일치한 전체 문서의 facet 별 문서 수를 센다.
+    // facet 은 색인에서 바로 세므로 페이지에 들지 않은 문서는 읽지 않는다.
+    public SearchPage search(final String query, final int offset, final int limit, final FacetRequest facets) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset and limit must not be negative");
+        }
+
+        final Query parsed = queryCache.parse(query);
+        final int k = (int) Math.min(Integer.MAX_VALUE, (long) offset + limit);
+        return replicas.read(replica -> {
+            final int[] matches = matches(replica, parsed);
+            final TopDocs topDocs = replica.index.topDocs(parsed, matches, k);
+
+            final List<SearchHit> hits = new ArrayList<>();
+            for (int rank = offset; rank < topDocs.size(); rank++) {
+                hits.add(new SearchHit(replica.documents.get(topDocs.ordinal(rank)), topDocs.score(rank)));
+            }
+            return new SearchPage(hits, offset, topDocs.getTotalHits(), replica.index.facets(matches, facets));
+        });
+    }
+
+    // 검색을 수행하고 선택된 실행 계획과 절별 소요 시간을 반환한다.
+    // 실행 계획을 보기 위한 것이므로 캐시된 결과를 쓰지 않는다.
+    public QueryPlan explain(final String query) {
+        final Query parsed = queryCache.parse(query);
+        return replicas.read(replica -> {
+            final QueryPlan plan = replica.index.plan(parsed, true);
+            plan.execute(replica.documents);
+            return plan;
+        });
+    }
+
+    // 저장소를 닫는다. 메모리에만 보관하는 경우 아무 일도 하지 않는다.
+    @Override
+    public synchronized void close() throws IOException {
+        pipeline.close();
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    // 파싱한 쿼리 캐시의 통계
+    public CacheStats getQueryCacheStats() {
+        return queryCache.queryStats();
+    }
+
+    // 검색 결과 캐시의 통계
+    public CacheStats getResultCacheStats() {
+        return queryCache.resultStats();
+    }
+
+    // 빈 자리를 포함한 문서 번호 수
+    int ordinalCount() {
+        return replicas.read(replica -> replica.documents.size());
+    }
+
+    // 복제본에서 쿼리와 일치하는 문서 번호, 같은 버전에서 계산한 결과가 캐시에 있다면 그대로 쓴다.
+    private int[] matches(final Replica replica, final Query query) {
+        final int[] cached = queryCache.matches(query, replica.version);
+        if (cached != null) {
+            return cached;
+        }
+        final int[] matches = replica.index.plan(query, false).matches(replica.documents);
+        queryCache.put(query, matches, replica.version);
+        return matches;
+    }
+
+    // 경로별 변경에 문서 번호를 배정하여 두 복제본에 적용하고 공개한 뒤, 변경과 관련된 검색 결과를 캐시에서 버린다.
+    // 같은 경로의 이전 문서는 대체된다. 저장소 반영이 끝난 뒤에만 호출하며, 이 안에서는 I/O 를 하지 않는다.
+    private void commit(final List<Update> updates) {
+        final List<Change> changes = new ArrayList<>(updates.size());
+        for (final Update update : updates) {
+            final Entry stale = update.document == null
+                ? entries.remove(update.path)
+                : entries.put(update.path, new Entry(nextOrdinal++, update.document, update.contentHash));
+            if (stale != null || update.document != null) {
+                changes.add(new Change(stale == null ? -1 : stale.ordinal, update.document));
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        final int tombstones = nextOrdinal - entries.size();
+        final boolean compact = tombstones >= COMPACT_MIN_TOMBSTONES && tombstones > entries.size();
+        replicas.write(replica -> replica.apply(changes, compact));
+        if (compact) {
+            renumber();
+            // 문서 번호가 모두 바뀌었으므로 이전 결과는 쓸 수 없다.
+            queryCache.invalidateAll();
+            version++;
+            return;
+        }
+
+        final int[] removed = changes.stream()
+            .filter(change -> change.staleOrdinal >= 0)
+            .mapToInt(change -> change.staleOrdinal)
+            .toArray();
+        final List<Document> added = changes.stream()
+            .map(change -> change.document)
+            .filter(Objects::nonNull)
             .collect(Collectors.toList());
+        queryCache.advance(version++, removed, added);
+    }
+
+    // 복제본의 compact 와 같이 남은 문서에 이전 번호 순서대로 0 부터 번호를 다시 매긴다.
+    private void renumber() {
+        final List<Map.Entry<String, Entry>> live = new ArrayList<>(entries.entrySet());
+        live.sort(Comparator.comparingInt(entry -> entry.getValue().ordinal));
+        nextOrdinal = 0;
+        for (final Map.Entry<String, Entry> entry : live) {
+            final Entry current = entry.getValue();
+            entry.setValue(new Entry(nextOrdinal++, current.document, current.contentHash));
+        }
+    }
+
+    // 저장소에 기록된 이후 수정되지 않은 파일이라면 그 문서, 아니면 null
+    private synchronized Document unchangedDocument(final String path) {
+        if (store == null) {
+            return null;
+        }
+        final StoredDocument stored = store.get(path);
+        final Entry entry = entries.get(path);
+        if (stored == null || entry == null || stored.getLastModified() != new File(path).lastModified()) {
+            return null;
+        }
+        return entry.document;
+    }
+
+    // 읽은 문서를 저장소에 기록하고 변경을 모은다. 내용이 바뀌지 않은 경로라면 기존 문서를 반환한다.
+    // 경로별 문서는 commit 에서 바뀐다. 호출하는 쪽에서 락을 잡고 있어야 한다.
+    private Document publish(final String path, final ImportedFile imported, final List<Update> updates) throws IOException {
+        final Entry entry = entries.get(path);
+        if (entry != null && entry.contentHash != null && entry.contentHash == imported.getContentHash()) {
+            // 수정 시각만 바뀐 경우, 저장소에는 속성 없이 해시만 기록된다.
+            persist(path, imported.getContentHash(), entry.document);
+            return entry.document;
+        }
+
+        persist(path, imported.getContentHash(), imported.getDocument());
+        updates.add(new Update(path, imported.getDocument(), imported.getContentHash()));
+        return imported.getDocument();
+    }
+
+    private void persist(final String path, final long contentHash, final Document document) throws IOException {
+        if (store != null) {
+            store.append(path, new File(path).lastModified(), contentHash, document);
+        }
+    }
+
+    private void flush() throws IOException {
+        if (store != null) {
+            store.flush();
+        }
+    }
+
+    // 확장자에 맞는 임포터로 문서를 읽는다. 저장소는 변경하지 않는다.
+    private ImportedFile readDocument(final String path) throws IOException {
+        return await(submit(path));
+    }
+
+    // 확장자에 맞는 임포터를 찾아 파이프라인에 넣는다.
+    private CompletableFuture<ImportedFile> submit(final String path) throws IOException {
+        final File file = new File(path);
+        if (!file.exists()) {
+            throw new FileNotFoundException(path);
+        }
+
+        final int separatorIndex = path.lastIndexOf(".");
+        if (separatorIndex == -1 || separatorIndex == path.length()) {
+            throw new UnknownFileTypeException("No Extension found For file: " + path);
+        }
+        final String extension = path.substring(separatorIndex + 1);
+        final AsyncImporter importer = importers.get(extension);
+        if (importer == null) {
+            throw new UnknownFileTypeException("For file: " + path);
+        }
+        return pipeline.submit(file, importer);
+    }
+
+    // 파이프라인 결과를 기다린다. 비동기 단계에서 감싼 예외는 원래 예외로 되돌린다.
+    private static ImportedFile await(final CompletableFuture<ImportedFile> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof UncheckedIOException) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * 검색이 읽는 문서 목록과 색인 한 벌
+     * 문서 번호 순서이며 대체되거나 삭제된 문서는 null 이다.
+     */
+    private static final class Replica {
+        private final List<Document> documents = new ArrayList<>();
+        private DocumentIndex index = new DocumentIndex();
+        // 적용한 변경 수
+        private long version;
+
+        // 두 복제본에 같은 순서로 적용되므로 문서 번호도 같게 배정된다.
+        // compact 라면 변경을 적용한 뒤 빈 자리를 없애고 색인을 다시 만든다.
+        private void apply(final List<Change> changes, final boolean compact) {
+            for (final Change change : changes) {
+                if (change.staleOrdinal >= 0) {
+                    index.remove(change.staleOrdinal, documents.get(change.staleOrdinal));
+                    documents.set(change.staleOrdinal, null);
+                }
+                if (change.document != null) {
+                    index.add(documents.size(), change.document);
+                    documents.add(change.document);
+                }
+            }
+            if (compact) {
+                compact();
+            }
+            index.refresh();
+            version++;
+        }
+
+        // 남은 문서에 이전 번호 순서대로 0 부터 번호를 다시 매긴다.
+        private void compact() {
+            final List<Document> live = documents.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+            documents.clear();
+            index = new DocumentIndex();
+            for (final Document document : live) {
+                index.add(documents.size(), document);
+                documents.add(document);
+            }
+        }
+    }
+
+    // 경로의 문서를 바꾼다. document 가 null 이면 제거한다.
+    private static final class Update {
+        private final String path;
+        private final Document document;
+        private final Long contentHash;
+
+        private Update(final String path, final Document document, final Long contentHash) {
+            this.path = path;
+            this.document = document;
+            this.contentHash = contentHash;
+        }
+    }
+
+    // 이전 문서 번호를 지우고(-1 이면 없음) 새 문서를 추가한다(null 이면 없음).
+    private static final class Change {
+        private final int staleOrdinal;
+        private final Document document;
+
+        private Change(final int staleOrdinal, final Document document) {
+            this.staleOrdinal = staleOrdinal;
+            this.document = document;
+        }
+    }
+
+    // 경로별 현재 문서
+    private static final class Entry {
+        private final int ordinal;
+        private final Document document;
+        // 원본 파일 내용 해시, 해시 없이 저장된 문서라면 null
+        private final Long contentHash;
+
+        private Entry(final int ordinal, final Document document, final Long contentHash) {
+            this.ordinal = ordinal;
+            this.document = document;
+            this.contentHash = contentHash;
+        }
     }
 }
@@ -0,0 +1,63 @@
+package dms;
+
+import dms.document.Document;
+import dms.document.AsyncImporter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 임포터와 파일 내용 해시로 찾는 임포트 결과 캐시
+ *
+ * 내용이 같은 파일은 같은 임포터가 같은 속성을 만들므로 다시 파싱하지 않는다.
+ * 가장 오래 쓰이지 않은 항목부터 버린다. 임포트 스레드에서 함께 쓰므로 동기화한다.
+ */
+class ImportCache {
+    private final Map<Key, Document> entries;
+
+    ImportCache(final int capacity) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, Document> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    // 없다면 null
+    synchronized Document get(final AsyncImporter importer, final long contentHash) {
+        return entries.get(new Key(importer, contentHash));
+    }
+
+    synchronized void put(final AsyncImporter importer, final long contentHash, final Document document) {
+        entries.put(new Key(importer, contentHash), document);
+    }
+
+    private static final class Key {
+        private final AsyncImporter importer;
+        private final long contentHash;
+
+        private Key(final AsyncImporter importer, final long contentHash) {
+            this.importer = importer;
+            this.contentHash = contentHash;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return importer == key.importer && contentHash == key.contentHash;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(importer), contentHash);
+        }
+    }
+}
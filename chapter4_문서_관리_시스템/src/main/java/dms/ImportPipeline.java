@@ -0,0 +1,209 @@
+package dms;
+
+import dms.constants.Attributes;
+import dms.document.AsyncImporter;
+import dms.document.ContentHash;
+import dms.document.Document;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 파일 읽기 → 문서 추출 단계를 서로 다른 스레드 풀에서 수행한다.
+ * 색인 반영은 DocumentManagementSystem 이 결과를 모아 한 번에 수행한다.
+ *
+ * - 읽기 : 파일 내용 해시를 계산하고 임포트 캐시를 확인한다.
+ *          대기열이 가득 차면 제출하는 스레드가 기다리므로 처리 속도보다 빠르게 쌓이지 않는다.
+ * - 추출 : 임포터마다 전용 풀(bulkhead)에서 크기가 제한된 대기열로 수행한다.
+ *          이미지 디코딩이 느려도 텍스트 임포터의 스레드는 비어 있으므로 함께 밀리지 않는다.
+ *
+ * 임포터마다 처리 중인 파일 수(추출 스레드 수 + 대기열 크기)를 제한한다.
+ * 한도에 이르면 그 임포터의 파일을 제출하는 스레드만 기다리므로,
+ * 공유하는 읽기 스레드가 느린 임포터의 대기열 앞에서 막혀 다른 임포터까지 밀리는 일이 없다.
+ * 임포터가 파일 하나에 여러 작업을 실행하여 대기열이 가득 차면 읽기 대기열처럼 실행을 기다린다.
+ *
+ * 스레드는 데몬이며 일정 시간 일이 없으면 종료된다.
+ * close 는 처리 중인 파일이 끝나기를 일정 시간 기다린 뒤 남은 작업을 버리고,
+ * 끝나지 않은 파일의 결과는 RejectedExecutionException 으로 끝내 결과를 기다리는 스레드가 멈춰 있지 않게 한다.
+ */
+class ImportPipeline implements Closeable {
+    private static final long KEEP_ALIVE_SECONDS = 1;
+    private static final long CLOSE_TIMEOUT_SECONDS = 5;
+
+    private final ThreadPoolExecutor readPool;
+    private final int extractThreads;
+    private final int extractQueueSize;
+    private final Map<AsyncImporter, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final ImportCache importCache;
+    // 제출되어 아직 끝나지 않은 파일의 결과
+    private final Set<CompletableFuture<ImportedFile>> inFlight = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    ImportPipeline(final int readThreads, final int readQueueSize, final int extractThreads, final int extractQueueSize,
+                   final ImportCache importCache) {
+        this.readPool = new ThreadPoolExecutor(readThreads, readThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(readQueueSize), daemonThreads("dms-read"), ImportPipeline::waitForSpace);
+        this.readPool.allowCoreThreadTimeOut(true);
+        this.extractThreads = extractThreads;
+        this.extractQueueSize = extractQueueSize;
+        this.importCache = importCache;
+    }
+
+    // 파일을 파이프라인에 넣는다. 임포터의 처리 중인 파일 수나 읽기 대기열이 가득 찼다면 자리가 날 때까지 기다린다.
+    // 같은 임포터로 같은 내용을 읽은 적이 있다면 추출하지 않고 캐시된 문서의 경로만 바꾼다.
+    CompletableFuture<ImportedFile> submit(final File file, final AsyncImporter importer) {
+        if (closed) {
+            throw new RejectedExecutionException("Import pipeline is closed");
+        }
+        final Bulkhead bulkhead = bulkhead(importer);
+        bulkhead.acquire();
+        final CompletableFuture<ImportedFile> future;
+        try {
+            future = read(file, importer, bulkhead);
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            throw e;
+        }
+        inFlight.add(future);
+        // 제출과 close 가 겹쳤다면 close 가 이 결과를 보지 못했을 수 있다.
+        if (closed) {
+            future.completeExceptionally(new RejectedExecutionException("Import pipeline is closed"));
+        }
+        return future.whenComplete((imported, e) -> {
+            inFlight.remove(future);
+            bulkhead.release();
+        });
+    }
+
+    private CompletableFuture<ImportedFile> read(final File file, final AsyncImporter importer, final Bulkhead bulkhead) {
+        return CompletableFuture.supplyAsync(() -> hash(file), readPool)
+            .thenCompose(contentHash -> {
+                final Document cached = importCache.get(importer, contentHash);
+                if (cached != null) {
+                    final Document document = file.getPath().equals(cached.getAttribute(Attributes.PATH))
+                        ? cached
+                        : cached.withAttribute(Attributes.PATH, file.getPath());
+                    return CompletableFuture.completedFuture(new ImportedFile(document, contentHash));
+                }
+                return importer.importFile(file, bulkhead.executor).thenApply(document -> {
+                    importCache.put(importer, contentHash, document);
+                    return new ImportedFile(document, contentHash);
+                });
+            });
+    }
+
+    @Override
+    public void close() {
+        close(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    // 읽기, 추출 순서로 새 작업을 받지 않고 timeout 까지 기다린다. 그때까지 끝나지 않은 작업은 버린다.
+    void close(final long timeout, final TimeUnit unit) {
+        closed = true;
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        readPool.shutdown();
+        boolean terminated = awaitTermination(readPool, deadline);
+        for (final Bulkhead bulkhead : bulkheads.values()) {
+            bulkhead.executor.shutdown();
+        }
+        for (final Bulkhead bulkhead : bulkheads.values()) {
+            terminated &= awaitTermination(bulkhead.executor, deadline);
+        }
+        if (!terminated) {
+            readPool.shutdownNow();
+            bulkheads.values().forEach(bulkhead -> bulkhead.executor.shutdownNow());
+        }
+
+        // 버린 작업과 종료된 풀에 제출되지 못한 작업의 결과를 끝낸다.
+        final RejectedExecutionException rejected = new RejectedExecutionException("Import pipeline is closed");
+        inFlight.forEach(future -> future.completeExceptionally(rejected));
+    }
+
+    private Bulkhead bulkhead(final AsyncImporter importer) {
+        return bulkheads.computeIfAbsent(importer, key -> new Bulkhead(extractThreads, extractQueueSize));
+    }
+
+    private static long hash(final File file) {
+        try {
+            return ContentHash.of(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // 기다리는 도중 인터럽트되면 기다리지 않고 false
+    private static boolean awaitTermination(final ThreadPoolExecutor executor, final long deadline) {
+        try {
+            return executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // 대기열이 가득 찼을 때 거절하는 대신 제출한 스레드를 기다리게 한다.
+    private static void waitForSpace(final Runnable task, final ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("Import pipeline is closed");
+        }
+        try {
+            executor.getQueue().put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for import pipeline", e);
+        }
+    }
+
+    /**
+     * 임포터 하나의 추출 풀과 처리 중인 파일 수 한도
+     */
+    private static final class Bulkhead {
+        private final ThreadPoolExecutor executor;
+        private final Semaphore permits;
+
+        private Bulkhead(final int threads, final int queueSize) {
+            this.executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), daemonThreads("dms-extract"), ImportPipeline::waitForSpace);
+            this.executor.allowCoreThreadTimeOut(true);
+            this.permits = new Semaphore(threads + queueSize);
+        }
+
+        private void acquire() {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Import pipeline is closed");
+            }
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while waiting for import pipeline", e);
+            }
+        }
+
+        private void release() {
+            permits.release();
+        }
+    }
+
+    private static ThreadFactory daemonThreads(final String prefix) {
+        final AtomicInteger count = new AtomicInteger();
+        return task -> {
+            final Thread thread = new Thread(task, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package dms;
+
+import dms.document.Document;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 일괄 임포트 결과
+ * 성공한 문서와 파일별 실패 원인을 함께 제공한다.
+ */
+public class ImportResult {
+    private final List<Document> imported;
+    private final Map<String, Exception> failures;
+
+    ImportResult(final List<Document> imported, final Map<String, Exception> failures) {
+        this.imported = Collections.unmodifiableList(imported);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    public List<Document> getImported() {
+        return imported;
+    }
+
+    // 실패한 파일 경로와 실패 원인
+    public Map<String, Exception> getFailures() {
+        return failures;
+    }
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "ImportResult{" +
+            "imported=" + imported.size() +
+            ", failures=" + failures.keySet() +
+            '}';
+    }
+}
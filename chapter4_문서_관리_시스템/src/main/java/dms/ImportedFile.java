@@ -0,0 +1,24 @@
+package dms;
+
+import dms.document.Document;
+
+/**
+ * 임포트 파이프라인이 만든 문서와 원본 파일 내용 해시
+ */
+class ImportedFile {
+    private final Document document;
+    private final long contentHash;
+
+    ImportedFile(final Document document, final long contentHash) {
+        this.document = document;
+        this.contentHash = contentHash;
+    }
+
+    Document getDocument() {
+        return document;
+    }
+
+    long getContentHash() {
+        return contentHash;
+    }
+}
@@ -0,0 +1,91 @@
+package dms;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Left-Right 동시성 제어
+ *
+ * 같은 자료구조를 두 벌 두고 읽기는 공개된 쪽만, 쓰기는 숨은 쪽부터 변경한다.
+ * - 읽기 : 락 없이 진입만 표시하고 읽는다. 쓰기가 진행 중이어도 기다리지 않는다.
+ * - 쓰기 : 숨은 쪽 변경 → 공개 쪽 교체 → 이전 쪽을 읽던 읽기가 끝나기를 기다림 → 이전 쪽에도 같은 변경
+ *
+ * 읽는 동안 그 복제본은 변경되지 않으므로 읽기는 항상 일관된 스냅샷을 본다.
+ * 쓰기는 한 번에 하나씩만 수행되며, 같은 변경을 두 번 적용하므로 변경은 결정적이어야 한다.
+ * 두 벌 모두 같은 변경을 쌓으므로, 지운 데이터를 남기는 자료구조라면 쓰기 안에서 정리해야 메모리가 두 배로 늘지 않는다.
+ */
+final class LeftRight<T> {
+    private final T left;
+    private final T right;
+    private final ReadIndicator[] readIndicators = {new ReadIndicator(), new ReadIndicator()};
+
+    // 읽기가 사용할 복제본, 0 이면 left
+    private volatile int published;
+    // 읽기가 진입을 표시할 indicator
+    private volatile int version;
+
+    LeftRight(final T left, final T right) {
+        this.left = left;
+        this.right = right;
+    }
+
+    <R> R read(final Function<T, R> reader) {
+        final ReadIndicator indicator = readIndicators[version];
+        indicator.arrive();
+        try {
+            return reader.apply(instance(published));
+        } finally {
+            indicator.depart();
+        }
+    }
+
+    synchronized void write(final Consumer<T> writer) {
+        final int previous = published;
+        writer.accept(instance(1 - previous));
+        published = 1 - previous;
+        waitForReaders();
+        writer.accept(instance(previous));
+    }
+
+    // 진입 표시를 다른 indicator 로 옮기고, 교체 전에 진입한 읽기가 모두 끝나기를 기다린다.
+    private void waitForReaders() {
+        final int previous = version;
+        final int next = 1 - previous;
+        awaitEmpty(readIndicators[next]);
+        version = next;
+        awaitEmpty(readIndicators[previous]);
+    }
+
+    private static void awaitEmpty(final ReadIndicator indicator) {
+        while (!indicator.isEmpty()) {
+            Thread.yield();
+        }
+    }
+
+    private T instance(final int index) {
+        return index == 0 ? left : right;
+    }
+
+    /**
+     * 진입과 퇴장을 따로 세어 읽기끼리 같은 카운터를 두고 경합하지 않게 한다.
+     */
+    private static final class ReadIndicator {
+        private final LongAdder ingress = new LongAdder();
+        private final LongAdder egress = new LongAdder();
+
+        private void arrive() {
+            ingress.increment();
+        }
+
+        private void depart() {
+            egress.increment();
+        }
+
+        // 퇴장을 먼저 읽어야 진입 중인 읽기를 놓치지 않는다.
+        private boolean isEmpty() {
+            final long departed = egress.sum();
+            return departed == ingress.sum();
+        }
+    }
+}
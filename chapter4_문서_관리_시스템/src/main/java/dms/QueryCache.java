@@ -0,0 +1,150 @@
+package dms;
+
+import dms.document.Document;
+import dms.query.Query;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 파싱한 쿼리와 검색 결과(일치하는 문서 번호)를 보관하는 캐시
+ *
+ * - 파싱한 쿼리 : 입력 문자열로 찾는다.
+ * - 검색 결과 : 정규화한 쿼리로 찾으며, 결과를 계산한 복제본의 버전이 같을 때만 쓴다.
+ *   문서가 바뀌면 결과가 달라질 수 있는 항목만 버리고 나머지는 새 버전으로 옮긴다.
+ * 둘 다 가장 오래 쓰이지 않은 항목부터 버린다. 검색 스레드에서 함께 쓰므로 동기화한다.
+ */
+class QueryCache {
+    private final Map<String, Query> queries;
+    private final Map<String, Result> results;
+
+    private long queryHits;
+    private long queryMisses;
+    private long queryEvictions;
+    private long resultHits;
+    private long resultMisses;
+    private long resultEvictions;
+    private long resultInvalidations;
+
+    QueryCache(final int capacity) {
+        this.queries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Query> eldest) {
+                if (size() > capacity) {
+                    queryEvictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Result> eldest) {
+                if (size() > capacity) {
+                    resultEvictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // 파싱은 락 밖에서 수행하며, 문법 오류인 쿼리는 캐시하지 않는다.
+    Query parse(final String query) {
+        synchronized (this) {
+            final Query cached = queries.get(query);
+            if (cached != null) {
+                queryHits++;
+                return cached;
+            }
+            queryMisses++;
+        }
+        final Query parsed = Query.parse(query);
+        synchronized (this) {
+            queries.put(query, parsed);
+        }
+        return parsed;
+    }
+
+    // version 의 복제본에서 계산한 결과, 없다면 null
+    synchronized int[] matches(final Query query, final long version) {
+        final Result result = results.get(query.normalized());
+        if (result == null || result.version != version) {
+            resultMisses++;
+            return null;
+        }
+        resultHits++;
+        return result.matches;
+    }
+
+    // 늦게 끝난 검색이 더 새로운 버전의 결과를 덮어쓰지 않게 한다.
+    synchronized void put(final Query query, final int[] matches, final long version) {
+        final Result current = results.get(query.normalized());
+        if (current == null || current.version <= version) {
+            results.put(query.normalized(), new Result(query, matches, version));
+        }
+    }
+
+    // 문서 변경이 version + 1 로 공개된 뒤 호출한다.
+    // 제거된 문서가 결과에 있거나 추가된 문서가 쿼리와 일치한다면 결과를 버리고, 아니라면 새 버전에서도 쓴다.
+    synchronized void advance(final long version, final int[] removedOrdinals, final List<Document> addedDocuments) {
+        final Iterator<Result> iterator = results.values().iterator();
+        while (iterator.hasNext()) {
+            final Result result = iterator.next();
+            if (result.version == version + 1) {
+                continue;
+            }
+            if (result.version != version || result.isAffectedBy(removedOrdinals, addedDocuments)) {
+                iterator.remove();
+                resultInvalidations++;
+            } else {
+                result.version = version + 1;
+            }
+        }
+    }
+
+    // 문서 번호가 모두 바뀌었을 때 모든 결과를 버린다.
+    synchronized void invalidateAll() {
+        resultInvalidations += results.size();
+        results.clear();
+    }
+
+    synchronized CacheStats queryStats() {
+        return new CacheStats(queryHits, queryMisses, queryEvictions, 0);
+    }
+
+    synchronized CacheStats resultStats() {
+        return new CacheStats(resultHits, resultMisses, resultEvictions, resultInvalidations);
+    }
+
+    private static final class Result {
+        private final Query query;
+        // 오름차순 문서 번호, 검색 사이에 공유하므로 변경하지 않는다.
+        private final int[] matches;
+        // 캐시의 락으로 보호한다.
+        private long version;
+
+        private Result(final Query query, final int[] matches, final long version) {
+            this.query = query;
+            this.matches = matches;
+            this.version = version;
+        }
+
+        private boolean isAffectedBy(final int[] removedOrdinals, final List<Document> addedDocuments) {
+            for (final int ordinal : removedOrdinals) {
+                if (Arrays.binarySearch(matches, ordinal) >= 0) {
+                    return true;
+                }
+            }
+            for (final Document document : addedDocuments) {
+                if (query.test(document)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package dms;
+
+import dms.document.Document;
+
+/**
+ * 관련도 점수가 붙은 검색 결과
+ */
+public class SearchHit {
+    private final Document document;
+    private final float score;
+
+    SearchHit(final Document document, final float score) {
+        this.document = document;
+        this.score = score;
+    }
+
+    public Document getDocument() {
+        return document;
+    }
+
+    public float getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchHit{" +
+            "path=" + document.getAttribute(dms.constants.Attributes.PATH) +
+            ", score=" + score +
+            '}';
+    }
+}
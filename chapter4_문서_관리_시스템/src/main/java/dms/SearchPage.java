@@ -0,0 +1,45 @@
+package dms;
+
+import dms.index.Facets;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 관련도 순으로 정렬된 검색 결과의 한 페이지
+ */
+public class SearchPage {
+    private final List<SearchHit> hits;
+    private final int offset;
+    private final int totalHits;
+    private final Facets facets;
+
+    SearchPage(final List<SearchHit> hits, final int offset, final int totalHits, final Facets facets) {
+        this.hits = Collections.unmodifiableList(hits);
+        this.offset = offset;
+        this.totalHits = totalHits;
+        this.facets = facets;
+    }
+
+    public List<SearchHit> getHits() {
+        return hits;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    // 쿼리와 일치한 전체 문서 수
+    public int getTotalHits() {
+        return totalHits;
+    }
+
+    // 페이지가 아닌 쿼리와 일치한 전체 문서에 대한 facet 별 문서 수
+    public Facets getFacets() {
+        return facets;
+    }
+
+    public boolean hasNext() {
+        return offset + hits.size() < totalHits;
+    }
+}
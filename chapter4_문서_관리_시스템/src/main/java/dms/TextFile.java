@@ -2,23 +2,39 @@ package dms;
 
 import dms.constants.Attributes;
 
+import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
-public class TextFile {
+/**
+ * 텍스트 파일에서 속성을 추출한다.
+ *
+ * 파일 전체를 미리 읽지 않고, 추출에 필요한 줄까지만 앞으로 읽어 나간다.
+ * 필요한 속성을 모두 추출한 뒤 close 하면 나머지 내용은 읽지 않는다.
+ * 지금 읽은 줄 하나만 보관하므로 파일이 커져도 메모리 사용량은 늘지 않는다.
+ * 이미 지나간 줄을 찾으면 파일을 처음부터 다시 읽는다.
+ */
+public class TextFile implements Closeable {
     private final Map<String, String> attributes;
-    private final List<String> lines;
+    private final File file;
+    private BufferedReader reader;
+    // 마지막으로 읽은 줄과 그 줄 번호, 아직 읽지 않았다면 -1
+    private String currentLine;
+    private int currentNumber = -1;
+    private boolean endOfFile;
 
     public TextFile(final File file) throws IOException {
         this.attributes = new HashMap<>();
         attributes.put(Attributes.PATH, file.getPath());
-        this.lines = Files.lines(file.toPath()).collect(Collectors.toList());
+        this.file = file;
+        this.reader = open(file);
     }
 
     public Map<String, String> getAttributes() {
@@ -33,9 +49,9 @@ public class TextFile {
         final StringBuilder accumulator = new StringBuilder();
         int lineNumber;
 
-        for (lineNumber = start; lineNumber < lines.size(); lineNumber++) {
-            final String line = lines.get(lineNumber);
-            if (isEnd.test(line)) {
+        for (lineNumber = start; ; lineNumber++) {
+            final String line = line(lineNumber);
+            if (line == null || isEnd.test(line)) {
                 break;
             }
 
@@ -47,11 +63,49 @@ public class TextFile {
     }
 
     public void addLineSuffix(final String prefix, final String attributeName) {
-        for (final String line : lines) {
+        for (int lineNumber = 0; ; lineNumber++) {
+            final String line = line(lineNumber);
+            if (line == null) {
+                break;
+            }
             if (line.startsWith(prefix)) {
                 attributes.put(attributeName, line.substring(prefix.length()));
                 break;
             }
         }
     }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // number 번째 줄, 파일 끝을 넘으면 null
+    // 아직 읽지 않은 줄이라면 그 줄까지만 읽고, 지나간 줄이라면 처음부터 다시 읽는다.
+    private String line(final int number) {
+        try {
+            if (number < currentNumber) {
+                reader.close();
+                reader = open(file);
+                currentLine = null;
+                currentNumber = -1;
+                endOfFile = false;
+            }
+            while (currentNumber < number && !endOfFile) {
+                currentLine = reader.readLine();
+                if (currentLine == null) {
+                    endOfFile = true;
+                } else {
+                    currentNumber++;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return currentNumber == number ? currentLine : null;
+    }
+
+    private static BufferedReader open(final File file) throws IOException {
+        return Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8);
+    }
 }
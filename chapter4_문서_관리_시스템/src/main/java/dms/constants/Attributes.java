@@ -1,5 +1,7 @@
 package dms.constants;
 
+import java.util.Set;
+
 public abstract class Attributes {
     public static final String PATH = "path";
     public static final String PATIENT = "patient";
@@ -9,4 +11,10 @@ public abstract class Attributes {
     public static final String HEIGHT = "height";
     public static final String TYPE = "type";
     public static final String AMOUNT = "amount";
+    // 이미지 EXIF 방향(1~8)과 촬영 시각(ISO-8601, 예: 2017-01-05T10:30:00)
+    public static final String ORIENTATION = "orientation";
+    public static final String CAPTURED = "captured";
+
+    // 숫자로 비교할 수 있는 속성, 범위 검색과 숫자 색인의 대상이 된다.
+    public static final Set<String> NUMERIC = Set.of(WIDTH, HEIGHT, AMOUNT, ORIENTATION);
 }
@@ -0,0 +1,53 @@
+package dms.document;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 비동기 임포터 SPI
+ *
+ * META-INF/services/dms.document.AsyncImporter 에 구현 클래스를 적어두면
+ * DocumentManagementSystem 이 ServiceLoader 로 찾아 extensions 의 확장자에 등록한다.
+ *
+ * 임포터마다 전용 스레드 풀(executor)을 받는다.
+ * 블로킹 작업을 이 풀에서 수행하면 느린 임포터가 다른 임포터의 스레드를 차지하지 않는다.
+ */
+public interface AsyncImporter {
+    // 처리할 파일 확장자
+    Set<String> extensions();
+
+    // 파일을 읽어 문서를 만든다. 블로킹 작업은 executor 에서 수행해야 한다.
+    // 실패는 예외로 완료된 future 로 알린다.
+    CompletableFuture<Document> importFile(File file, Executor executor);
+
+    // 동기 임포터를 확장자와 함께 비동기 임포터로 감싼다.
+    static AsyncImporter of(final Importer importer, final String... extensions) {
+        final Set<String> extensionSet = Set.of(extensions);
+        return new AsyncImporter() {
+            @Override
+            public Set<String> extensions() {
+                return extensionSet;
+            }
+
+            @Override
+            public CompletableFuture<Document> importFile(final File file, final Executor executor) {
+                return runBlocking(importer, file, executor);
+            }
+        };
+    }
+
+    // 동기 임포터를 executor 에서 실행한다. IOException 은 UncheckedIOException 으로 감싼다.
+    static CompletableFuture<Document> runBlocking(final Importer importer, final File file, final Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return importer.importFile(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+}
@@ -0,0 +1,133 @@
+package dms.document;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+
+/**
+ * 파일 내용의 64 bit 해시 (xxHash64, seed 0)
+ *
+ * 내용이 같은 파일을 다시 임포트하지 않도록 임포트 캐시와 저장소의 키로 쓴다.
+ * 입력을 32 byte 단위로 4 개의 누산기에 나누어 섞으므로 파일을 버퍼 단위로 흘려보내며 계산할 수 있다.
+ */
+public final class ContentHash {
+    private static final long PRIME1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME3 = 0x165667B19E3779F9L;
+    private static final long PRIME4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME5 = 0x27D4EB2F165667C5L;
+    private static final int STRIPE = 32;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INTS = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private long v1 = PRIME1 + PRIME2;
+    private long v2 = PRIME2;
+    private long v3 = 0;
+    private long v4 = -PRIME1;
+    private long length;
+
+    // 32 byte 가 채워지지 않은 나머지 입력
+    private final byte[] pending = new byte[STRIPE];
+    private int pendingLength;
+
+    public static long of(final File file) throws IOException {
+        final ContentHash hash = new ContentHash();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream input = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                hash.update(buffer, 0, read);
+            }
+        }
+        return hash.digest();
+    }
+
+    public static long of(final byte[] bytes) {
+        final ContentHash hash = new ContentHash();
+        hash.update(bytes, 0, bytes.length);
+        return hash.digest();
+    }
+
+    public void update(final byte[] bytes, final int offset, final int count) {
+        length += count;
+        int position = offset;
+        final int end = offset + count;
+
+        if (pendingLength > 0) {
+            final int fill = Math.min(STRIPE - pendingLength, count);
+            System.arraycopy(bytes, position, pending, pendingLength, fill);
+            pendingLength += fill;
+            position += fill;
+            if (pendingLength < STRIPE) {
+                return;
+            }
+            stripe(pending, 0);
+            pendingLength = 0;
+        }
+
+        while (end - position >= STRIPE) {
+            stripe(bytes, position);
+            position += STRIPE;
+        }
+
+        pendingLength = end - position;
+        System.arraycopy(bytes, position, pending, 0, pendingLength);
+    }
+
+    public long digest() {
+        long hash;
+        if (length >= STRIPE) {
+            hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            hash = merge(hash, v1);
+            hash = merge(hash, v2);
+            hash = merge(hash, v3);
+            hash = merge(hash, v4);
+        } else {
+            hash = PRIME5;
+        }
+        hash += length;
+
+        int position = 0;
+        for (; position + 8 <= pendingLength; position += 8) {
+            hash ^= round(0, (long) LONGS.get(pending, position));
+            hash = Long.rotateLeft(hash, 27) * PRIME1 + PRIME4;
+        }
+        if (position + 4 <= pendingLength) {
+            hash ^= Integer.toUnsignedLong((int) INTS.get(pending, position)) * PRIME1;
+            hash = Long.rotateLeft(hash, 23) * PRIME2 + PRIME3;
+            position += 4;
+        }
+        for (; position < pendingLength; position++) {
+            hash ^= (pending[position] & 0xFFL) * PRIME5;
+            hash = Long.rotateLeft(hash, 11) * PRIME1;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= PRIME2;
+        hash ^= hash >>> 29;
+        hash *= PRIME3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    private void stripe(final byte[] bytes, final int offset) {
+        v1 = round(v1, (long) LONGS.get(bytes, offset));
+        v2 = round(v2, (long) LONGS.get(bytes, offset + 8));
+        v3 = round(v3, (long) LONGS.get(bytes, offset + 16));
+        v4 = round(v4, (long) LONGS.get(bytes, offset + 24));
+    }
+
+    private static long round(final long accumulator, final long lane) {
+        return Long.rotateLeft(accumulator + lane * PRIME2, 31) * PRIME1;
+    }
+
+    private static long merge(final long hash, final long accumulator) {
+        return (hash ^ round(0, accumulator)) * PRIME1 + PRIME4;
+    }
+}
@@ -1,15 +1,161 @@
 package dms.document;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import static dms.constants.Attributes.*;
+
+/**
+ * 문서의 속성
+ *
+ * 모든 문서가 같은 속성 이름을 쓰므로 속성별 맵 대신 고정된 스키마의 배열에 값을 둔다.
+ * - 텍스트 속성 : 스키마 순서의 String 배열
+ * - 숫자 속성(너비, 높이, 방향) : int 로 저장하고 조회 시 문자열로 바꾼다.
+ *   int 로 바꿨다가 되돌렸을 때 원래 문자열과 다르다면(예: "0800") 문자열 그대로 보관한다.
+ * - 종류 : 몇 가지 값이 모든 문서에 반복되므로 같은 문자열 객체를 공유한다.
+ *   환자 이름처럼 값의 가짓수가 많은 속성은 공유하면 풀이 계속 커지므로 공유하지 않는다.
+ * - 스키마에 없는 속성 : 별도 맵, 없으면 null
+ */
 public class Document {
-    private final Map<String, String> attributes;
+    private static final String[] TEXT_SCHEMA = {PATH, PATIENT, ADDRESS, BODY, TYPE, AMOUNT, CAPTURED};
+    private static final String[] INT_SCHEMA = {WIDTH, HEIGHT, ORIENTATION};
+    private static final Map<String, Integer> TEXT_SLOTS = slots(TEXT_SCHEMA);
+    private static final Map<String, Integer> INT_SLOTS = slots(INT_SCHEMA);
+    private static final int ABSENT = Integer.MIN_VALUE;
+
+    // 문서 사이에 공유하는 종류 값, 최대 MAX_SHARED_TYPES 개까지만 둔다.
+    private static final int MAX_SHARED_TYPES = 64;
+    private static final Map<String, String> SHARED_TYPES = new ConcurrentHashMap<>();
+
+    private final String[] texts = new String[TEXT_SCHEMA.length];
+    private final int[] ints = new int[INT_SCHEMA.length];
+    private Map<String, String> extras;
 
     Document(final Map<String, String> attributes) {
-        this.attributes = attributes;
+        Arrays.fill(ints, ABSENT);
+        attributes.forEach(this::set);
+    }
+
+    private Document(final Document source) {
+        System.arraycopy(source.texts, 0, texts, 0, texts.length);
+        System.arraycopy(source.ints, 0, ints, 0, ints.length);
+        if (source.extras != null) {
+            extras = new HashMap<>(source.extras);
+        }
+    }
+
+    // 저장소에 보관된 속성으로 문서를 복원한다.
+    public static Document restore(final Map<String, String> attributes) {
+        return new Document(attributes);
+    }
+
+    // 속성 하나만 바꾼 사본, 내용이 같은 파일을 다른 경로로 임포트할 때 사용한다.
+    public Document withAttribute(final String attributeName, final String value) {
+        final Document copy = new Document(this);
+        copy.clear(attributeName);
+        copy.set(attributeName, value);
+        return copy;
     }
 
     public String getAttribute(final String attributeName) {
-        return attributes.get(attributeName);
+        final Integer text = TEXT_SLOTS.get(attributeName);
+        if (text != null) {
+            return texts[text];
+        }
+        final Integer number = INT_SLOTS.get(attributeName);
+        if (number != null && ints[number] != ABSENT) {
+            return Integer.toString(ints[number]);
+        }
+        return extras == null ? null : extras.get(attributeName);
+    }
+
+    // 모든 속성, 저장소에 문서를 기록할 때 사용한다.
+    public Map<String, String> getAttributes() {
+        final Map<String, String> attributes = new LinkedHashMap<>();
+        for (int i = 0; i < texts.length; i++) {
+            if (texts[i] != null) {
+                attributes.put(TEXT_SCHEMA[i], texts[i]);
+            }
+        }
+        for (int i = 0; i < ints.length; i++) {
+            if (ints[i] != ABSENT) {
+                attributes.put(INT_SCHEMA[i], Integer.toString(ints[i]));
+            }
+        }
+        if (extras != null) {
+            attributes.putAll(extras);
+        }
+        return Collections.unmodifiableMap(attributes);
+    }
+
+    private void set(final String attributeName, final String value) {
+        final Integer text = TEXT_SLOTS.get(attributeName);
+        if (text != null) {
+            texts[text] = TYPE.equals(attributeName) ? shareType(value) : value;
+            return;
+        }
+        final Integer number = INT_SLOTS.get(attributeName);
+        if (number != null) {
+            final int parsed = parseCanonicalInt(value);
+            if (parsed != ABSENT) {
+                ints[number] = parsed;
+                return;
+            }
+        }
+        if (extras == null) {
+            extras = new HashMap<>(4);
+        }
+        extras.put(attributeName, value);
+    }
+
+    private void clear(final String attributeName) {
+        final Integer number = INT_SLOTS.get(attributeName);
+        if (number != null) {
+            ints[number] = ABSENT;
+        }
+        if (extras != null) {
+            extras.remove(attributeName);
+        }
+    }
+
+    // 풀이 가득 차면 새 값은 공유하지 않는다. 잘못된 저장소가 풀을 키우지 못하게 한다.
+    private static String shareType(final String value) {
+        if (value == null) {
+            return null;
+        }
+        final String shared = SHARED_TYPES.get(value);
+        if (shared != null) {
+            return shared;
+        }
+        if (SHARED_TYPES.size() >= MAX_SHARED_TYPES) {
+            return value;
+        }
+        final String previous = SHARED_TYPES.putIfAbsent(value, value);
+        return previous == null ? value : previous;
+    }
+
+    // 다시 문자열로 바꿨을 때 같은 값이 되는 정수, 아니면 ABSENT
+    private static int parseCanonicalInt(final String value) {
+        if (value == null || value.isEmpty() || value.length() > 11) {
+            return ABSENT;
+        }
+        try {
+            final int parsed = Integer.parseInt(value);
+            return parsed != ABSENT && Integer.toString(parsed).equals(value) ? parsed : ABSENT;
+        } catch (NumberFormatException e) {
+            return ABSENT;
+        }
+    }
+
+    private static Map<String, Integer> slots(final String[] schema) {
+        final Map<String, Integer> slots = new HashMap<>();
+        for (int i = 0; i < schema.length; i++) {
+            slots.put(schema[i], i);
+        }
+        return Collections.unmodifiableMap(slots);
     }
 }
@@ -0,0 +1,186 @@
+package dms.document;
+
+import javax.imageio.stream.ImageInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static dms.constants.Attributes.CAPTURED;
+import static dms.constants.Attributes.ORIENTATION;
+
+/**
+ * JPEG 헤더의 EXIF(APP1) 세그먼트에서 방향과 촬영 시각만 읽는다.
+ *
+ * 마커 세그먼트의 길이만 보고 건너뛰므로 이미지 데이터(SOS 이후)는 읽지 않는다.
+ * EXIF 가 없거나 손상된 경우에는 아무 속성도 추가하지 않는다.
+ */
+final class ExifReader {
+    private static final int SOI = 0xFFD8;
+    private static final int APP1 = 0xE1;
+    private static final int SOS = 0xDA;
+    private static final int EOI = 0xD9;
+    private static final byte[] EXIF_HEADER = {'E', 'x', 'i', 'f', 0, 0};
+
+    private static final int TAG_ORIENTATION = 0x0112;
+    private static final int TAG_DATE_TIME = 0x0132;
+    private static final int TAG_EXIF_IFD = 0x8769;
+    private static final int TAG_DATE_TIME_ORIGINAL = 0x9003;
+    private static final int TYPE_ASCII = 2;
+    private static final int TYPE_SHORT = 3;
+    private static final int ENTRY_SIZE = 12;
+
+    private static final Pattern EXIF_DATE_TIME = Pattern.compile("\\d{4}:\\d{2}:\\d{2} \\d{2}:\\d{2}:\\d{2}");
+
+    private ExifReader() {
+    }
+
+    // 스트림은 JPEG 파일의 처음을 가리켜야 한다. 읽은 뒤의 위치는 정해져 있지 않다.
+    static void read(final ImageInputStream input, final Map<String, String> attributes) throws IOException {
+        input.setByteOrder(ByteOrder.BIG_ENDIAN);
+        try {
+            if (input.readUnsignedShort() != SOI) {
+                return;
+            }
+            while (true) {
+                final int marker = nextMarker(input);
+                if (marker == SOS || marker == EOI) {
+                    return;
+                }
+                if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+                    continue;
+                }
+
+                final int length = input.readUnsignedShort() - 2;
+                if (length < 0) {
+                    return;
+                }
+                if (marker == APP1 && length > EXIF_HEADER.length) {
+                    final byte[] segment = new byte[length];
+                    input.readFully(segment);
+                    if (startsWithExifHeader(segment)) {
+                        readTiff(ByteBuffer.wrap(segment, EXIF_HEADER.length, length - EXIF_HEADER.length).slice(), attributes);
+                        return;
+                    }
+                } else {
+                    input.skipBytes(length);
+                }
+                // EXIF 는 프레임 헤더(SOF)보다 앞에 온다.
+                if (isStartOfFrame(marker)) {
+                    return;
+                }
+            }
+        } catch (EOFException e) {
+            // 헤더가 잘린 파일
+        }
+    }
+
+    // 0xFF 채움 바이트를 건너뛰고 마커 종류를 반환한다.
+    private static int nextMarker(final ImageInputStream input) throws IOException {
+        int b = input.readUnsignedByte();
+        while (b != 0xFF) {
+            b = input.readUnsignedByte();
+        }
+        while (b == 0xFF) {
+            b = input.readUnsignedByte();
+        }
+        return b;
+    }
+
+    private static boolean isStartOfFrame(final int marker) {
+        return marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+    }
+
+    private static boolean startsWithExifHeader(final byte[] segment) {
+        for (int i = 0; i < EXIF_HEADER.length; i++) {
+            if (segment[i] != EXIF_HEADER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void readTiff(final ByteBuffer tiff, final Map<String, String> attributes) {
+        if (tiff.remaining() < 8) {
+            return;
+        }
+        if (tiff.get(0) == 'I' && tiff.get(1) == 'I') {
+            tiff.order(ByteOrder.LITTLE_ENDIAN);
+        } else if (tiff.get(0) != 'M' || tiff.get(1) != 'M') {
+            return;
+        }
+        if (tiff.getShort(2) != 42) {
+            return;
+        }
+
+        String dateTime = null;
+        String dateTimeOriginal = null;
+        int exifIfd = -1;
+
+        final int ifd0 = tiff.getInt(4);
+        final int ifd0Entries = entryCount(tiff, ifd0);
+        for (int i = 0; i < ifd0Entries; i++) {
+            final int entry = ifd0 + 2 + i * ENTRY_SIZE;
+            final int tag = Short.toUnsignedInt(tiff.getShort(entry));
+            final int type = Short.toUnsignedInt(tiff.getShort(entry + 2));
+            if (tag == TAG_ORIENTATION && type == TYPE_SHORT) {
+                final int orientation = Short.toUnsignedInt(tiff.getShort(entry + 8));
+                if (orientation >= 1 && orientation <= 8) {
+                    attributes.put(ORIENTATION, String.valueOf(orientation));
+                }
+            } else if (tag == TAG_DATE_TIME && type == TYPE_ASCII) {
+                dateTime = ascii(tiff, entry);
+            } else if (tag == TAG_EXIF_IFD) {
+                exifIfd = tiff.getInt(entry + 8);
+            }
+        }
+
+        final int exifEntries = entryCount(tiff, exifIfd);
+        for (int i = 0; i < exifEntries; i++) {
+            final int entry = exifIfd + 2 + i * ENTRY_SIZE;
+            final int tag = Short.toUnsignedInt(tiff.getShort(entry));
+            final int type = Short.toUnsignedInt(tiff.getShort(entry + 2));
+            if (tag == TAG_DATE_TIME_ORIGINAL && type == TYPE_ASCII) {
+                dateTimeOriginal = ascii(tiff, entry);
+            }
+        }
+
+        // 촬영 시각(DateTimeOriginal)이 없으면 파일 수정 시각(DateTime)을 쓴다.
+        final String captured = isDateTime(dateTimeOriginal) ? dateTimeOriginal : dateTime;
+        if (isDateTime(captured)) {
+            attributes.put(CAPTURED, captured.substring(0, 10).replace(':', '-') + "T" + captured.substring(11));
+        }
+    }
+
+    // 버퍼 안에 온전히 들어 있는 IFD 항목 수, IFD 가 범위를 벗어나면 0
+    private static int entryCount(final ByteBuffer tiff, final int ifd) {
+        if (ifd < 0 || ifd > tiff.limit() - 2) {
+            return 0;
+        }
+        return Math.min(Short.toUnsignedInt(tiff.getShort(ifd)), (tiff.limit() - ifd - 2) / ENTRY_SIZE);
+    }
+
+    private static String ascii(final ByteBuffer tiff, final int entry) {
+        final int count = tiff.getInt(entry + 4);
+        final int offset = count <= 4 ? entry + 8 : tiff.getInt(entry + 8);
+        if (count <= 0 || offset < 0 || offset > tiff.limit() - count) {
+            return null;
+        }
+        int length = count;
+        while (length > 0 && tiff.get(offset + length - 1) == 0) {
+            length--;
+        }
+        final byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = tiff.get(offset + i);
+        }
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private static boolean isDateTime(final String value) {
+        return value != null && EXIF_DATE_TIME.matcher(value).matches();
+    }
+}
@@ -0,0 +1,182 @@
+package dms.document;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static dms.constants.Attributes.PATH;
+
+/**
+ * 텍스트 문서에서 속성을 추출하는 선언적 명세
+ *
+ * - prefix   : 접두어로 시작하는 첫 줄에서 접두어 뒷부분을 추출한다.
+ * - block    : 시작 줄부터 종료 조건을 만족하는 줄 직전까지를 추출한다.
+ *              시작 줄은 줄 번호로 지정하거나(block), 앞 블록의 종료 줄 다음 줄로 지정한다(nextBlock).
+ * - constant : 고정된 값을 추가한다.
+ *
+ * 명세는 파일을 한 번만 앞으로 읽는 상태 기계로 실행된다.
+ * 추출할 속성 수와 관계없이 각 줄은 한 번만 읽으며, 모든 속성을 추출하면 나머지 줄은 읽지 않는다.
+ */
+public final class ExtractionSpec {
+    private static final int AFTER_PREVIOUS = -1;
+
+    private final String[] prefixes;
+    private final String[] prefixAttributes;
+    private final Block[] blocks;
+    private final Map<String, String> constants;
+
+    private ExtractionSpec(final Builder builder) {
+        this.prefixes = builder.prefixes.toArray(new String[0]);
+        this.prefixAttributes = builder.prefixAttributes.toArray(new String[0]);
+        this.blocks = builder.blocks.toArray(new Block[0]);
+        this.constants = new LinkedHashMap<>(builder.constants);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Document extract(final File file) throws IOException {
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put(PATH, file.getPath());
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            new Extraction(attributes).run(reader);
+        }
+        attributes.putAll(constants);
+        return new Document(attributes);
+    }
+
+    private static final class Block {
+        private final String attributeName;
+        private final int start;
+        private final Predicate<String> isEnd;
+
+        private Block(final String attributeName, final int start, final Predicate<String> isEnd) {
+            this.attributeName = attributeName;
+            this.start = start;
+            this.isEnd = isEnd;
+        }
+    }
+
+    /**
+     * 파일 하나를 읽는 동안의 상태
+     * 블록은 서로 겹칠 수 있으므로 시작된 블록은 모두 같은 줄을 받는다.
+     */
+    private final class Extraction {
+        private final Map<String, String> attributes;
+        private final boolean[] found = new boolean[prefixes.length];
+        // 블록별 시작 줄, 아직 정해지지 않았다면 AFTER_PREVIOUS
+        private final int[] starts = new int[blocks.length];
+        private final StringBuilder[] texts = new StringBuilder[blocks.length];
+        private final boolean[] done = new boolean[blocks.length];
+        private int remainingPrefixes = prefixes.length;
+        private int remainingBlocks = blocks.length;
+
+        private Extraction(final Map<String, String> attributes) {
+            this.attributes = attributes;
+            for (int i = 0; i < blocks.length; i++) {
+                starts[i] = blocks[i].start;
+                texts[i] = new StringBuilder();
+            }
+        }
+
+        private void run(final BufferedReader reader) throws IOException {
+            int lineNumber = 0;
+            String line;
+            while ((remainingPrefixes > 0 || remainingBlocks > 0) && (line = reader.readLine()) != null) {
+                if (remainingPrefixes > 0) {
+                    matchPrefixes(line);
+                }
+                for (int i = 0; i < blocks.length; i++) {
+                    if (done[i] || starts[i] == AFTER_PREVIOUS || lineNumber < starts[i]) {
+                        continue;
+                    }
+                    if (blocks[i].isEnd.test(line)) {
+                        finish(i, lineNumber);
+                    } else {
+                        texts[i].append(line).append('\n');
+                    }
+                }
+                lineNumber++;
+            }
+
+            // 파일 끝까지 종료 조건을 만나지 못한 블록
+            for (int i = 0; i < blocks.length; i++) {
+                if (!done[i]) {
+                    finish(i, lineNumber);
+                }
+            }
+        }
+
+        private void matchPrefixes(final String line) {
+            for (int i = 0; i < prefixes.length; i++) {
+                if (!found[i] && line.startsWith(prefixes[i])) {
+                    attributes.put(prefixAttributes[i], line.substring(prefixes[i].length()));
+                    found[i] = true;
+                    remainingPrefixes--;
+                }
+            }
+        }
+
+        private void finish(final int block, final int endLine) {
+            attributes.put(blocks[block].attributeName, texts[block].toString().trim());
+            done[block] = true;
+            remainingBlocks--;
+
+            final int next = block + 1;
+            if (next < blocks.length && blocks[next].start == AFTER_PREVIOUS) {
+                starts[next] = endLine + 1;
+            }
+        }
+    }
+
+    public static final class Builder {
+        private final List<String> prefixes = new ArrayList<>();
+        private final List<String> prefixAttributes = new ArrayList<>();
+        private final List<Block> blocks = new ArrayList<>();
+        private final Map<String, String> constants = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder prefix(final String prefix, final String attributeName) {
+            prefixes.add(prefix);
+            prefixAttributes.add(attributeName);
+            return this;
+        }
+
+        public Builder block(final String attributeName, final int startLine, final Predicate<String> isEnd) {
+            if (startLine < 0) {
+                throw new IllegalArgumentException("startLine must not be negative: " + startLine);
+            }
+            blocks.add(new Block(attributeName, startLine, isEnd));
+            return this;
+        }
+
+        // 앞 블록의 종료 줄 다음 줄부터 시작하는 블록
+        public Builder nextBlock(final String attributeName, final Predicate<String> isEnd) {
+            if (blocks.isEmpty()) {
+                throw new IllegalStateException("nextBlock requires a previous block: " + attributeName);
+            }
+            blocks.add(new Block(attributeName, AFTER_PREVIOUS, isEnd));
+            return this;
+        }
+
+        public Builder constant(final String attributeName, final String value) {
+            constants.put(attributeName, value);
+            return this;
+        }
+
+        public ExtractionSpec build() {
+            return new ExtractionSpec(this);
+        }
+    }
+}
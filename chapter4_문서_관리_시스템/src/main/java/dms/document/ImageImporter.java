@@ -1,27 +1,72 @@
 package dms.document;
 
 import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import static dms.constants.Attributes.HEIGHT;
 import static dms.constants.Attributes.PATH;
 import static dms.constants.Attributes.TYPE;
 import static dms.constants.Attributes.WIDTH;
 
-public class ImageImporter implements Importer {
+/**
+ * 이미지의 크기와 EXIF 정보를 헤더에서만 읽는다.
+ *
+ * 픽셀 데이터를 디코딩하지 않으므로 큰 이미지도 헤더를 읽는 I/O 만 든다.
+ * 형식은 확장자가 아니라 파일 내용으로 판별한다.
+ */
+public class ImageImporter implements Importer, AsyncImporter {
+    private static final String JPEG = "jpeg";
+    private static final Set<String> EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif");
+
+    @Override
+    public Set<String> extensions() {
+        return EXTENSIONS;
+    }
+
+    // 디코더는 이 임포터 전용 풀에서 실행되므로 텍스트 임포트를 기다리게 하지 않는다.
+    @Override
+    public CompletableFuture<Document> importFile(final File file, final Executor executor) {
+        return AsyncImporter.runBlocking(this, file, executor);
+    }
 
     @Override
     public Document importFile(final File file) throws IOException {
         final Map<String, String> attributes = new HashMap<>();
         attributes.put(PATH, file.getPath());
 
-        final BufferedImage image = ImageIO.read(file);
-        attributes.put(WIDTH, String.valueOf(image.getWidth()));
-        attributes.put(HEIGHT, String.valueOf(image.getHeight()));
+        try (ImageInputStream input = ImageIO.createImageInputStream(file)) {
+            if (input == null) {
+                throw new IOException("Cannot open image: " + file);
+            }
+            final Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format: " + file);
+            }
+
+            final ImageReader reader = readers.next();
+            try {
+                if (JPEG.equalsIgnoreCase(reader.getFormatName())) {
+                    ExifReader.read(input, attributes);
+                    input.seek(0);
+                }
+
+                // 메타데이터를 무시하고 앞으로만 읽도록 하여 헤더만 해석하게 한다.
+                reader.setInput(input, true, true);
+                attributes.put(WIDTH, String.valueOf(reader.getWidth(0)));
+                attributes.put(HEIGHT, String.valueOf(reader.getHeight(0)));
+            } finally {
+                reader.dispose();
+            }
+        }
         attributes.put(TYPE, "IMAGE");
 
         return new Document(attributes);
@@ -1,29 +1,21 @@
 package dms.document;
 
-import dms.TextFile;
-import dms.constants.Attributes;
-
-import java.io.File;
-import java.io.IOException;
-import java.util.Map;
-
 import static dms.constants.Attributes.AMOUNT;
 import static dms.constants.Attributes.PATIENT;
+import static dms.constants.Attributes.TYPE;
 
-public class InvoiceImporter implements Importer {
+public class InvoiceImporter extends TextImporter {
     private static final String NAME_PREFIX = "Dear ";
     private static final String AMOUNT_PREFIX = "Amount: ";
 
-    @Override
-    public Document importFile(final File file) throws IOException {
-        final TextFile textFile = new TextFile(file);
-
-        textFile.addLineSuffix(NAME_PREFIX, PATIENT);
-        textFile.addLineSuffix(AMOUNT_PREFIX, AMOUNT);
-
-        final Map<String, String> attributes = textFile.getAttributes();
-        attributes.put(Attributes.TYPE, "INVOICE");
+    // 금액 줄까지만 읽고 나머지 본문은 읽지 않는다.
+    private static final ExtractionSpec SPEC = ExtractionSpec.builder()
+        .prefix(NAME_PREFIX, PATIENT)
+        .prefix(AMOUNT_PREFIX, AMOUNT)
+        .constant(TYPE, "INVOICE")
+        .build();
 
-        return new Document(attributes);
+    public InvoiceImporter() {
+        super(SPEC, "invoice");
     }
 }
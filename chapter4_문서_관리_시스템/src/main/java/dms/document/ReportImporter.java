@@ -1,25 +1,17 @@
 package dms.document;
 
-import dms.TextFile;
-
-import java.io.File;
-import java.io.IOException;
-import java.util.Map;
-
 import static dms.constants.Attributes.*;
 
-public class ReportImporter implements Importer {
+public class ReportImporter extends TextImporter {
     private static final String NAME_PREFIX = "Patient: ";
 
-    @Override
-    public Document importFile(final File file) throws IOException {
-        final TextFile textFile = new TextFile(file);
-        textFile.addLineSuffix(NAME_PREFIX, PATIENT);
-        textFile.addLines(2, line -> false, BODY);
-
-        final Map<String, String> attributes = textFile.getAttributes();
-        attributes.put(TYPE, "REPORT");
+    private static final ExtractionSpec SPEC = ExtractionSpec.builder()
+        .prefix(NAME_PREFIX, PATIENT)
+        .block(BODY, 2, line -> false)
+        .constant(TYPE, "REPORT")
+        .build();
 
-        return new Document(attributes);
+    public ReportImporter() {
+        super(SPEC, "report");
     }
 }
@@ -0,0 +1,41 @@
+package dms.document;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 추출 명세만으로 텍스트 문서를 임포트한다.
+ * 새로운 문서 형식은 임포터 클래스 없이 명세를 정의하여 등록할 수 있다.
+ */
+public class TextImporter implements Importer, AsyncImporter {
+    private final ExtractionSpec spec;
+    private final Set<String> extensions;
+
+    // 확장자는 등록할 때 정한다.
+    public TextImporter(final ExtractionSpec spec) {
+        this(spec, new String[0]);
+    }
+
+    protected TextImporter(final ExtractionSpec spec, final String... extensions) {
+        this.spec = spec;
+        this.extensions = Set.of(extensions);
+    }
+
+    @Override
+    public Set<String> extensions() {
+        return extensions;
+    }
+
+    @Override
+    public Document importFile(final File file) throws IOException {
+        return spec.extract(file);
+    }
+
+    @Override
+    public CompletableFuture<Document> importFile(final File file, final Executor executor) {
+        return AsyncImporter.runBlocking(this, file, executor);
+    }
+}
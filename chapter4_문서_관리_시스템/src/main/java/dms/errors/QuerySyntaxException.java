@@ -0,0 +1,12 @@
+package dms.errors;
+
+public class QuerySyntaxException extends RuntimeException {
+
+    public QuerySyntaxException(String message) {
+        super(message);
+    }
+
+    public QuerySyntaxException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
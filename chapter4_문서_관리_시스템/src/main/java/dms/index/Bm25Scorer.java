@@ -0,0 +1,108 @@
+package dms.index;
+
+import dms.query.AndNode;
+import dms.query.NotNode;
+import dms.query.OrNode;
+import dms.query.Query;
+import dms.query.QueryVisitor;
+import dms.query.RangeNode;
+import dms.query.TermNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * BM25 점수로 일치 문서를 정렬해 상위 k 개만 고른다.
+ *
+ * 점수는 쿼리에서 단어 색인이 있는 속성(body, address)에 대한 절의 단어로 계산한다.
+ * NOT 아래의 절은 점수에 반영하지 않는다.
+ * 상위 k 개는 크기가 k 인 최소 힙으로 고르므로 일치 문서가 많아도 k 개만 남는다.
+ */
+class Bm25Scorer {
+    private final DocumentIndex index;
+
+    Bm25Scorer(final DocumentIndex index) {
+        this.index = index;
+    }
+
+    // matches 는 오름차순 문서 번호
+    TopDocs topDocs(final Query query, final int[] matches, final int k) {
+        final float[] scores = new float[matches.length];
+        for (final ScoringTerm term : query.root().accept(new TermCollector())) {
+            final TokenizedFieldIndex fieldIndex = index.tokenizedIndex(term.attributeName);
+            if (fieldIndex != null) {
+                fieldIndex.addScores(term.token, matches, scores);
+            }
+        }
+
+        // 점수가 같으면 먼저 임포트된 문서를 앞에 둔다.
+        final PriorityQueue<Integer> heap = new PriorityQueue<>(Math.max(1, Math.min(k, matches.length)), (left, right) -> {
+            final int byScore = Float.compare(scores[left], scores[right]);
+            return byScore != 0 ? byScore : Integer.compare(right, left);
+        });
+        for (int i = 0; i < matches.length && k > 0; i++) {
+            if (heap.size() < k) {
+                heap.add(i);
+            } else if (heap.comparator().compare(i, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(i);
+            }
+        }
+
+        final int[] ordinals = new int[heap.size()];
+        final float[] topScores = new float[heap.size()];
+        for (int i = heap.size() - 1; i >= 0; i--) {
+            final int position = heap.poll();
+            ordinals[i] = matches[position];
+            topScores[i] = scores[position];
+        }
+        return new TopDocs(ordinals, topScores, matches.length);
+    }
+
+    private static final class ScoringTerm {
+        private final String attributeName;
+        private final String token;
+
+        private ScoringTerm(final String attributeName, final String token) {
+            this.attributeName = attributeName;
+            this.token = token;
+        }
+    }
+
+    private static final class TermCollector implements QueryVisitor<List<ScoringTerm>> {
+
+        @Override
+        public List<ScoringTerm> visitTerm(final TermNode node) {
+            final List<ScoringTerm> terms = new ArrayList<>();
+            for (final String token : Tokenizer.tokenize(node.getValue())) {
+                terms.add(new ScoringTerm(node.getAttributeName(), token));
+            }
+            return terms;
+        }
+
+        @Override
+        public List<ScoringTerm> visitRange(final RangeNode node) {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public List<ScoringTerm> visitAnd(final AndNode node) {
+            final List<ScoringTerm> terms = new ArrayList<>();
+            node.getChildren().forEach(child -> terms.addAll(child.accept(this)));
+            return terms;
+        }
+
+        @Override
+        public List<ScoringTerm> visitOr(final OrNode node) {
+            final List<ScoringTerm> terms = new ArrayList<>();
+            node.getChildren().forEach(child -> terms.addAll(child.accept(this)));
+            return terms;
+        }
+
+        @Override
+        public List<ScoringTerm> visitNot(final NotNode node) {
+            return new ArrayList<>();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package dms.index;
+
+import dms.document.Document;
+import dms.query.Query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static dms.constants.Attributes.*;
+
+/**
+ * 속성별 색인을 묶어 관리한다.
+ * 문서 번호는 DocumentManagementSystem 에 저장된 순서와 같다.
+ *
+ * 한 속성에 여러 색인을 둘 수 있으며 각 색인의 후보 집합을 교차한다.
+ * - 값의 종류가 적은 속성 : 값 사전
+ * - 값의 종류가 많은 속성 : trigram
+ * - 긴 텍스트 속성 : 단어 + trigram
+ * 숫자 속성은 범위 검색을 위해 숫자 색인도 함께 둔다.
+ *
+ * facet 은 값 사전과 숫자 색인에서 바로 센다. 검색 결과는 비트맵으로 바꾸어 포스팅과 교차하므로 문서를 읽지 않는다.
+ * 환자 이름은 검색에는 trigram 을 쓰지만 facet 을 위해 값 사전을 따로 둔다.
+ *
+ * 색인은 추가만 한다. 제거된 문서는 포스팅에 남아 후보가 되지만 문서 목록에서 걸러지며,
+ * 관련도 통계에서는 remove 로 뺀다. 남은 포스팅은 DocumentManagementSystem 이 색인을 다시 만들 때 정리된다.
+ */
+public class DocumentIndex {
+    private final Map<String, List<FieldIndex>> fields = new HashMap<>();
+    private final Map<String, NumericFieldIndex> numericFields = new HashMap<>();
+    private final Map<String, TokenizedFieldIndex> textFields = new HashMap<>();
+    private final Map<String, ExactFieldIndex> valueFacets = new HashMap<>();
+    // 검색 계획에는 쓰지 않고 facet 에만 쓰는 색인
+    private final Map<String, ExactFieldIndex> facetOnlyFields = new HashMap<>();
+
+    public DocumentIndex() {
+        textFields.put(BODY, new TokenizedFieldIndex());
+        textFields.put(ADDRESS, new TokenizedFieldIndex());
+        fields.put(BODY, Arrays.asList(textFields.get(BODY), new TrigramFieldIndex()));
+        fields.put(ADDRESS, Arrays.asList(textFields.get(ADDRESS), new TrigramFieldIndex()));
+        fields.put(PATH, Arrays.asList(new TrigramFieldIndex()));
+        fields.put(PATIENT, Arrays.asList(new TrigramFieldIndex()));
+        fields.put(CAPTURED, Arrays.asList(new TrigramFieldIndex()));
+        for (final String attributeName : Arrays.asList(TYPE, WIDTH, HEIGHT, AMOUNT, ORIENTATION)) {
+            final ExactFieldIndex exact = new ExactFieldIndex();
+            fields.put(attributeName, Arrays.asList(exact));
+            valueFacets.put(attributeName, exact);
+        }
+        facetOnlyFields.put(PATIENT, new ExactFieldIndex());
+        valueFacets.putAll(facetOnlyFields);
+        NUMERIC.forEach(attributeName -> numericFields.put(attributeName, new NumericFieldIndex()));
+    }
+
+    public void add(final int ordinal, final Document document) {
+        fields.forEach((attributeName, fieldIndexes) -> {
+            final String value = document.getAttribute(attributeName);
+            if (value != null) {
+                fieldIndexes.forEach(fieldIndex -> fieldIndex.add(ordinal, value));
+            }
+        });
+        facetOnlyFields.forEach((attributeName, facetIndex) -> {
+            final String value = document.getAttribute(attributeName);
+            if (value != null) {
+                facetIndex.add(ordinal, value);
+            }
+        });
+        numericFields.forEach((attributeName, numericIndex) -> {
+            final String value = document.getAttribute(attributeName);
+            if (value != null) {
+                numericIndex.add(ordinal, value);
+            }
+        });
+    }
+
+    // 제거된 문서를 관련도(BM25) 통계에서 뺀다. document 는 ordinal 로 추가한 문서여야 한다.
+    public void remove(final int ordinal, final Document document) {
+        textFields.forEach((attributeName, textIndex) -> {
+            final String value = document.getAttribute(attributeName);
+            if (value != null) {
+                textIndex.remove(ordinal, value);
+            }
+        });
+    }
+
+    // 추가된 문서를 검색 구조에 모두 반영한다.
+    // 호출 이후 다음 추가 전까지는 검색이 색인을 변경하지 않으므로 여러 스레드가 함께 읽을 수 있다.
+    public void refresh() {
+        numericFields.values().forEach(NumericFieldIndex::refresh);
+    }
+
+    // 색인 통계를 바탕으로 쿼리 실행 계획을 세운다.
+    public QueryPlan plan(final Query query, final boolean explain) {
+        return new QueryPlan(this, query, explain);
+    }
+
+    // 쿼리와 일치하는 문서(matches, 오름차순 문서 번호) 중 BM25 점수 상위 k 개를 고른다.
+    public TopDocs topDocs(final Query query, final int[] matches, final int k) {
+        return new Bm25Scorer(this).topDocs(query, matches, k);
+    }
+
+    // 쿼리와 일치하는 문서(matches, 오름차순 문서 번호)의 facet 별 문서 수
+    public Facets facets(final int[] matches, final FacetRequest request) {
+        if (request.isEmpty()) {
+            return Facets.empty();
+        }
+
+        final long[] bitmap = new long[matches.length == 0 ? 0 : (matches[matches.length - 1] >>> 6) + 1];
+        for (final int ordinal : matches) {
+            bitmap[ordinal >>> 6] |= 1L << ordinal;
+        }
+
+        final Map<String, Map<String, Integer>> values = new LinkedHashMap<>();
+        for (final String attributeName : request.values()) {
+            final ExactFieldIndex facetIndex = valueFacets.get(attributeName);
+            if (facetIndex == null) {
+                throw new IllegalArgumentException("No value facet for attribute: " + attributeName);
+            }
+            values.put(attributeName, Collections.unmodifiableMap(facetIndex.counts(bitmap)));
+        }
+
+        final Map<String, List<RangeCount>> ranges = new LinkedHashMap<>();
+        request.ranges().forEach((attributeName, bounds) -> {
+            final NumericFieldIndex numericIndex = numericFields.get(attributeName);
+            if (numericIndex == null) {
+                throw new IllegalArgumentException("No range facet for attribute: " + attributeName);
+            }
+            final int[] counts = numericIndex.counts(bounds, bitmap);
+            final List<RangeCount> buckets = new ArrayList<>();
+            for (int i = 0; i < counts.length; i++) {
+                final double min = i == 0 ? Double.NEGATIVE_INFINITY : bounds[i - 1];
+                final double max = i == bounds.length ? Double.POSITIVE_INFINITY : bounds[i];
+                buckets.add(new RangeCount(min, max, counts[i]));
+            }
+            ranges.put(attributeName, Collections.unmodifiableList(buckets));
+        });
+        return new Facets(Collections.unmodifiableMap(values), Collections.unmodifiableMap(ranges));
+    }
+
+    List<FieldIndex> fieldIndexes(final String attributeName) {
+        return fields.getOrDefault(attributeName, Collections.emptyList());
+    }
+
+    // 단어 색인이 없는 속성이라면 null
+    TokenizedFieldIndex tokenizedIndex(final String attributeName) {
+        return textFields.get(attributeName);
+    }
+
+    // 숫자 속성이 아니라면 null
+    NumericFieldIndex numericIndex(final String attributeName) {
+        return numericFields.get(attributeName);
+    }
+}
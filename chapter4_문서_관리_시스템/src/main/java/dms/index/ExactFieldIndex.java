@@ -0,0 +1,63 @@
+package dms.index;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * type, patient 처럼 값의 종류가 적은 속성을 값 그대로 색인한다.
+ * 검색 시에는 값 사전만 훑고 문서는 훑지 않는다.
+ * 값 사전은 값별 문서 수를 세는 facet 에도 쓴다.
+ */
+public class ExactFieldIndex implements FieldIndex {
+    private final Map<String, Postings> values = new TreeMap<>();
+
+    @Override
+    public void add(final int ordinal, final String value) {
+        values.computeIfAbsent(value, key -> new Postings()).add(ordinal);
+    }
+
+    @Override
+    public Postings candidates(final String queryValue) {
+        final Postings exact = values.get(queryValue);
+        final List<Postings> matches = new ArrayList<>();
+        for (final Map.Entry<String, Postings> entry : values.entrySet()) {
+            if (entry.getValue() != exact && entry.getKey().contains(queryValue)) {
+                matches.add(entry.getValue());
+            }
+        }
+        if (matches.isEmpty()) {
+            return exact == null ? Postings.empty() : exact;
+        }
+        if (exact != null) {
+            matches.add(exact);
+        }
+        return Postings.union(matches);
+    }
+
+    // 값 사전이 작으므로 포함하는 값의 문서 수를 더한다.
+    @Override
+    public int estimate(final String queryValue) {
+        int estimate = 0;
+        for (final Map.Entry<String, Postings> entry : values.entrySet()) {
+            if (entry.getKey().contains(queryValue)) {
+                estimate += entry.getValue().size();
+            }
+        }
+        return estimate;
+    }
+
+    // 값별로 matches 비트맵에 속한 문서 수, 값 순서이며 0 인 값은 제외한다.
+    Map<String, Integer> counts(final long[] matches) {
+        final Map<String, Integer> counts = new LinkedHashMap<>();
+        values.forEach((value, postings) -> {
+            final int count = postings.countIn(matches);
+            if (count > 0) {
+                counts.put(value, count);
+            }
+        });
+        return counts;
+    }
+}
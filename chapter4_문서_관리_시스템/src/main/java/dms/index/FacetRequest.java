@@ -0,0 +1,74 @@
+package dms.index;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 검색과 함께 집계할 facet 목록
+ * - 값 facet : 속성 값별 문서 수 (예: type, patient)
+ * - 구간 facet : 경계값으로 나눈 숫자 구간별 문서 수 (예: amount)
+ */
+public final class FacetRequest {
+    private static final FacetRequest NONE = builder().build();
+
+    private final Set<String> values;
+    private final Map<String, double[]> ranges;
+
+    private FacetRequest(final Builder builder) {
+        this.values = Collections.unmodifiableSet(new LinkedHashSet<>(builder.values));
+        this.ranges = Collections.unmodifiableMap(new LinkedHashMap<>(builder.ranges));
+    }
+
+    public static FacetRequest none() {
+        return NONE;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public boolean isEmpty() {
+        return values.isEmpty() && ranges.isEmpty();
+    }
+
+    Set<String> values() {
+        return values;
+    }
+
+    Map<String, double[]> ranges() {
+        return ranges;
+    }
+
+    public static final class Builder {
+        private final Set<String> values = new LinkedHashSet<>();
+        private final Map<String, double[]> ranges = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder values(final String attributeName) {
+            values.add(attributeName);
+            return this;
+        }
+
+        // 경계값은 오름차순이어야 한다. 경계값이 n 개라면 구간은 n + 1 개다.
+        public Builder ranges(final String attributeName, final double... bounds) {
+            final double[] copy = bounds.clone();
+            for (int i = 1; i < copy.length; i++) {
+                if (copy[i - 1] >= copy[i]) {
+                    throw new IllegalArgumentException("Range bounds must be ascending: " + Arrays.toString(bounds));
+                }
+            }
+            ranges.put(attributeName, copy);
+            return this;
+        }
+
+        public FacetRequest build() {
+            return new FacetRequest(this);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package dms.index;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 검색 결과의 facet 별 문서 수
+ * 요청하지 않은 facet 은 비어 있다.
+ */
+public class Facets {
+    private static final Facets EMPTY = new Facets(Collections.emptyMap(), Collections.emptyMap());
+
+    private final Map<String, Map<String, Integer>> values;
+    private final Map<String, List<RangeCount>> ranges;
+
+    Facets(final Map<String, Map<String, Integer>> values, final Map<String, List<RangeCount>> ranges) {
+        this.values = values;
+        this.ranges = ranges;
+    }
+
+    public static Facets empty() {
+        return EMPTY;
+    }
+
+    // 속성 값과 그 값을 가진 문서 수, 값 순서이며 문서가 없는 값은 제외한다.
+    public Map<String, Integer> getValueCounts(final String attributeName) {
+        return values.getOrDefault(attributeName, Collections.emptyMap());
+    }
+
+    // 구간 순서의 문서 수, 문서가 없는 구간도 포함한다.
+    public List<RangeCount> getRangeCounts(final String attributeName) {
+        return ranges.getOrDefault(attributeName, Collections.emptyList());
+    }
+
+    @Override
+    public String toString() {
+        return "Facets{" +
+            "values=" + values +
+            ", ranges=" + ranges +
+            '}';
+    }
+}
@@ -0,0 +1,19 @@
+package dms.index;
+
+/**
+ * 문서 속성 하나에 대한 색인
+ */
+public interface FieldIndex {
+    // 색인으로 후보 수를 추정할 수 없을 때의 추정치
+    int UNKNOWN_ESTIMATE = Integer.MAX_VALUE;
+
+    void add(int ordinal, String value);
+
+    // 속성 값에 queryValue 를 포함할 수 있는 후보 문서 목록
+    // 색인으로 범위를 좁힐 수 없다면 null 을 반환한다.
+    Postings candidates(String queryValue);
+
+    // 후보 문서 수의 상한 추정치, 쿼리 계획에서 절의 순서를 정하는 데 쓴다.
+    // candidates 보다 훨씬 싸게 계산할 수 있어야 한다.
+    int estimate(String queryValue);
+}
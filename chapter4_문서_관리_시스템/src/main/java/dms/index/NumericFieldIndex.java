@@ -0,0 +1,144 @@
+package dms.index;
+
+import dms.query.RangeNode;
+
+import java.util.Arrays;
+
+/**
+ * 숫자 속성을 값 순서로 정렬해 두는 색인
+ * 범위 검색은 이진 탐색으로 구간을 찾아 해당 구간의 문서만 꺼낸다.
+ *
+ * 추가된 값은 임시 버퍼에 쌓아 두었다가 다음 검색 때 한 번에 정렬해 병합한다.
+ * 여러 스레드가 함께 검색한다면 검색 전에 refresh 로 미리 병합해 두어야 한다.
+ */
+public class NumericFieldIndex {
+    private double[] values = new double[0];
+    private int[] ordinals = new int[0];
+
+    private double[] pendingValues = new double[16];
+    private int[] pendingOrdinals = new int[16];
+    private int pending;
+
+    public void add(final int ordinal, final String value) {
+        final double number = RangeNode.parseNumber(value);
+        if (Double.isNaN(number)) {
+            return;
+        }
+        if (pending == pendingValues.length) {
+            pendingValues = Arrays.copyOf(pendingValues, pending * 2);
+            pendingOrdinals = Arrays.copyOf(pendingOrdinals, pending * 2);
+        }
+        pendingValues[pending] = number;
+        pendingOrdinals[pending] = ordinal;
+        pending++;
+    }
+
+    // 임시 버퍼를 병합한다. 이후 추가가 없다면 검색은 색인을 변경하지 않는다.
+    public void refresh() {
+        merge();
+    }
+
+    // 범위에 속하는 문서 수, 정렬된 배열에서 바로 구할 수 있으므로 정확한 값이다.
+    public int estimate(final RangeNode range) {
+        merge();
+        return upperBound(range) - lowerBound(range);
+    }
+
+    public Postings candidates(final RangeNode range) {
+        merge();
+        final int from = lowerBound(range);
+        final int to = upperBound(range);
+
+        final int[] matches = Arrays.copyOfRange(ordinals, from, Math.max(from, to));
+        Arrays.sort(matches);
+        final Postings result = new Postings();
+        for (final int ordinal : matches) {
+            result.add(ordinal);
+        }
+        return result;
+    }
+
+    // bounds 로 나눈 구간별로 matches 비트맵에 속한 문서 수
+    // 구간은 (-∞, bounds[0]), [bounds[0], bounds[1]), ..., [bounds[n-1], +∞) 이다.
+    int[] counts(final double[] bounds, final long[] matches) {
+        merge();
+        final int[] counts = new int[bounds.length + 1];
+        int bucket = 0;
+        for (int i = 0; i < values.length; i++) {
+            while (bucket < bounds.length && values[i] >= bounds[bucket]) {
+                bucket++;
+            }
+            final int ordinal = ordinals[i];
+            final int word = ordinal >>> 6;
+            if (word < matches.length && (matches[word] & (1L << ordinal)) != 0) {
+                counts[bucket]++;
+            }
+        }
+        return counts;
+    }
+
+    // range 에 포함되는 첫 위치
+    private int lowerBound(final RangeNode range) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            final double value = values[middle];
+            final boolean belowRange = range.isMinInclusive() ? value < range.getMin() : value <= range.getMin();
+            if (belowRange) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // range 를 벗어나는 첫 위치
+    private int upperBound(final RangeNode range) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            final double value = values[middle];
+            final boolean withinMax = range.isMaxInclusive() ? value <= range.getMax() : value < range.getMax();
+            if (withinMax) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void merge() {
+        if (pending == 0) {
+            return;
+        }
+
+        final Integer[] order = new Integer[pending];
+        for (int i = 0; i < pending; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (left, right) -> Double.compare(pendingValues[left], pendingValues[right]));
+
+        final double[] mergedValues = new double[values.length + pending];
+        final int[] mergedOrdinals = new int[values.length + pending];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < values.length || j < pending) {
+            if (j == pending || (i < values.length && values[i] <= pendingValues[order[j]])) {
+                mergedValues[k] = values[i];
+                mergedOrdinals[k++] = ordinals[i++];
+            } else {
+                mergedValues[k] = pendingValues[order[j]];
+                mergedOrdinals[k++] = pendingOrdinals[order[j++]];
+            }
+        }
+
+        values = mergedValues;
+        ordinals = mergedOrdinals;
+        pending = 0;
+    }
+}
@@ -0,0 +1,402 @@
+package dms.index;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.IntConsumer;
+
+/**
+ * 문서 번호(ordinal)를 오름차순으로 저장하는 포스팅 리스트
+ * 문서는 항상 뒤에 추가되므로 append 만 지원한다.
+ *
+ * 두 가지 표현을 밀도에 따라 오간다.
+ * - 희소 : 128 개 단위 블록으로 나누어 이전 번호와의 차이를 varint 로 기록한다.
+ *          블록의 첫 번호는 스킵 테이블에 따로 두어 advance 시 블록을 건너뛴다.
+ * - 밀집 : 문서 번호 하나당 1 bit 를 쓰는 비트맵
+ */
+public class Postings {
+    public static final int NO_MORE_ORDINALS = Integer.MAX_VALUE;
+
+    private static final int BLOCK_SIZE = 128;
+    private static final Postings EMPTY = new Postings();
+
+    private int size;
+    private int last = -1;
+
+    // 희소 표현
+    private byte[] deltas = new byte[16];
+    private int deltaLength;
+    private int[] blockFirsts = new int[1];
+    private int[] blockOffsets = new int[1];
+    private int blocks;
+
+    // 밀집 표현, 희소 표현일 때는 null
+    private long[] bitmap;
+
+    public static Postings empty() {
+        return EMPTY;
+    }
+
+    public void add(final int ordinal) {
+        if (ordinal <= last) {
+            if (ordinal == last) {
+                return;
+            }
+            throw new IllegalArgumentException("Ordinals must be added in ascending order: " + ordinal);
+        }
+
+        if (bitmap != null) {
+            addToBitmap(ordinal);
+        } else {
+            addToBlocks(ordinal);
+        }
+        size++;
+        last = ordinal;
+
+        if (bitmap == null && size % BLOCK_SIZE == 0 && bitmapBytes(last) * 2 < sparseBytes()) {
+            convertToBitmap();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public PostingsIterator iterator() {
+        return bitmap != null ? new BitmapIterator() : new BlockIterator();
+    }
+
+    public void forEach(final IntConsumer consumer) {
+        final PostingsIterator iterator = iterator();
+        for (int ordinal = iterator.nextOrdinal(); ordinal != NO_MORE_ORDINALS; ordinal = iterator.nextOrdinal()) {
+            consumer.accept(ordinal);
+        }
+    }
+
+    // 색인 메모리 측정용, 배열의 여유 공간까지 포함한다.
+    public long ramBytesUsed() {
+        long bytes = 48L + deltas.length + (blockFirsts.length + blockOffsets.length) * 4L;
+        if (bitmap != null) {
+            bytes += bitmap.length * 8L;
+        }
+        return bytes;
+    }
+
+    // 두 포스팅 리스트의 교집합
+    // 작은 쪽을 순회하며 큰 쪽은 advance 로 건너뛴다.
+    public Postings intersect(final Postings other) {
+        final Postings small = size <= other.size ? this : other;
+        final Postings large = small == this ? other : this;
+        final Postings result = new Postings();
+        if (small.isEmpty()) {
+            return result;
+        }
+
+        if (large.bitmap != null) {
+            small.forEach(ordinal -> {
+                if (large.containsInBitmap(ordinal)) {
+                    result.add(ordinal);
+                }
+            });
+            return result;
+        }
+
+        final PostingsIterator lead = small.iterator();
+        final PostingsIterator follower = large.iterator();
+        int ordinal = lead.nextOrdinal();
+        while (ordinal != NO_MORE_ORDINALS) {
+            final int candidate = follower.advance(ordinal);
+            if (candidate == ordinal) {
+                result.add(ordinal);
+                ordinal = lead.nextOrdinal();
+            } else {
+                ordinal = lead.advance(candidate);
+            }
+        }
+        return result;
+    }
+
+    // words 비트맵에 속한 문서 수, 교집합을 만들지 않고 개수만 센다.
+    // 밀집 표현이라면 워드 단위 AND 의 bit 수를 더한다.
+    public int countIn(final long[] words) {
+        if (bitmap != null) {
+            int count = 0;
+            final int length = Math.min(bitmap.length, words.length);
+            for (int i = 0; i < length; i++) {
+                count += Long.bitCount(bitmap[i] & words[i]);
+            }
+            return count;
+        }
+
+        int count = 0;
+        final PostingsIterator iterator = iterator();
+        for (int ordinal = iterator.nextOrdinal(); ordinal != NO_MORE_ORDINALS; ordinal = iterator.nextOrdinal()) {
+            final int word = ordinal >>> 6;
+            if (word >= words.length) {
+                break;
+            }
+            if ((words[word] & (1L << ordinal)) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // 여러 포스팅 리스트의 합집합
+    public static Postings union(final Collection<Postings> postings) {
+        long total = 0;
+        int max = -1;
+        for (final Postings each : postings) {
+            total += each.size;
+            max = Math.max(max, each.last);
+        }
+        if (total == 0) {
+            return new Postings();
+        }
+
+        // 결과가 밀집할 것 같으면 비트맵에 OR 하고, 아니면 번호를 모아 정렬한다.
+        if (total * 32 >= max) {
+            final long[] words = new long[(max >>> 6) + 1];
+            for (final Postings each : postings) {
+                if (each.bitmap != null) {
+                    for (int i = 0; i < each.bitmap.length && i < words.length; i++) {
+                        words[i] |= each.bitmap[i];
+                    }
+                } else {
+                    each.forEach(ordinal -> words[ordinal >>> 6] |= 1L << ordinal);
+                }
+            }
+            return fromBitmap(words);
+        }
+
+        final int[] merged = new int[(int) total];
+        final int[] offset = {0};
+        for (final Postings each : postings) {
+            each.forEach(ordinal -> merged[offset[0]++] = ordinal);
+        }
+        Arrays.sort(merged);
+
+        final Postings result = new Postings();
+        for (final int ordinal : merged) {
+            result.add(ordinal);
+        }
+        return result;
+    }
+
+    private static Postings fromBitmap(final long[] words) {
+        final Postings result = new Postings();
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                result.add((i << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return result;
+    }
+
+    private void addToBlocks(final int ordinal) {
+        if (size % BLOCK_SIZE == 0) {
+            if (blocks == blockFirsts.length) {
+                blockFirsts = Arrays.copyOf(blockFirsts, blocks * 2);
+                blockOffsets = Arrays.copyOf(blockOffsets, blocks * 2);
+            }
+            blockFirsts[blocks] = ordinal;
+            blockOffsets[blocks] = deltaLength;
+            blocks++;
+            return;
+        }
+
+        int delta = ordinal - last;
+        if (deltaLength + 5 > deltas.length) {
+            deltas = Arrays.copyOf(deltas, Math.max(deltas.length * 2, deltaLength + 5));
+        }
+        while ((delta & ~0x7F) != 0) {
+            deltas[deltaLength++] = (byte) ((delta & 0x7F) | 0x80);
+            delta >>>= 7;
+        }
+        deltas[deltaLength++] = (byte) delta;
+    }
+
+    private void addToBitmap(final int ordinal) {
+        final int word = ordinal >>> 6;
+        if (word >= bitmap.length) {
+            final int length = Math.max(bitmap.length * 2, word + 1);
+            // 뒤쪽 문서가 드물게 추가되어 밀도가 떨어졌다면 다시 희소 표현으로 돌아간다.
+            if (length * 8L > sparseEstimate() * 4) {
+                convertToBlocks();
+                addToBlocks(ordinal);
+                return;
+            }
+            bitmap = Arrays.copyOf(bitmap, length);
+        }
+        bitmap[word] |= 1L << ordinal;
+    }
+
+    private boolean containsInBitmap(final int ordinal) {
+        final int word = ordinal >>> 6;
+        return word < bitmap.length && (bitmap[word] & (1L << ordinal)) != 0;
+    }
+
+    private void convertToBitmap() {
+        final long[] words = new long[(last >>> 6) + 1];
+        forEach(ordinal -> words[ordinal >>> 6] |= 1L << ordinal);
+        bitmap = words;
+        deltas = new byte[0];
+        deltaLength = 0;
+        blockFirsts = new int[1];
+        blockOffsets = new int[1];
+        blocks = 0;
+    }
+
+    private void convertToBlocks() {
+        final long[] words = bitmap;
+        final int count = size;
+        bitmap = null;
+        deltas = new byte[Math.max(16, count * 2)];
+        deltaLength = 0;
+        blocks = 0;
+        size = 0;
+        last = -1;
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                final int ordinal = (i << 6) + Long.numberOfTrailingZeros(word);
+                addToBlocks(ordinal);
+                size++;
+                last = ordinal;
+                word &= word - 1;
+            }
+        }
+    }
+
+    private long sparseBytes() {
+        return deltaLength + blocks * 8L;
+    }
+
+    // 비트맵 상태에서 희소 표현으로 바꿨을 때의 대략적인 크기
+    private long sparseEstimate() {
+        return size * 2L;
+    }
+
+    private static long bitmapBytes(final int last) {
+        return ((last >>> 6) + 1) * 8L;
+    }
+
+    /**
+     * 포스팅 리스트 순회
+     * 생성 시점의 크기까지만 순회한다.
+     */
+    public abstract static class PostingsIterator {
+        protected int current = -1;
+
+        // 다음 번호, 없다면 NO_MORE_ORDINALS
+        public abstract int nextOrdinal();
+
+        // target 이상인 첫 번호, 없다면 NO_MORE_ORDINALS
+        public abstract int advance(int target);
+    }
+
+    private final class BlockIterator extends PostingsIterator {
+        private final int limit = size;
+        private int index;
+        private int offset;
+
+        @Override
+        public int nextOrdinal() {
+            if (index >= limit) {
+                return current = NO_MORE_ORDINALS;
+            }
+            if (index % BLOCK_SIZE == 0) {
+                final int block = index / BLOCK_SIZE;
+                current = blockFirsts[block];
+                offset = blockOffsets[block];
+            } else {
+                current += readDelta();
+            }
+            index++;
+            return current;
+        }
+
+        @Override
+        public int advance(final int target) {
+            if (current >= target) {
+                return current;
+            }
+
+            // 스킵 테이블을 지수 탐색(galloping)한 뒤 이진 탐색으로 target 이 속한 블록을 찾는다.
+            final int currentBlock = index == 0 ? 0 : (index - 1) / BLOCK_SIZE;
+            final int lastBlock = (limit - 1) / BLOCK_SIZE;
+            int low = currentBlock;
+            int step = 1;
+            while (low + step <= lastBlock && blockFirsts[low + step] <= target) {
+                low += step;
+                step <<= 1;
+            }
+            int high = Math.min(low + step, lastBlock + 1);
+            while (high - low > 1) {
+                final int middle = (low + high) >>> 1;
+                if (blockFirsts[middle] <= target) {
+                    low = middle;
+                } else {
+                    high = middle;
+                }
+            }
+            if (low > currentBlock || index == 0) {
+                index = low * BLOCK_SIZE;
+            }
+
+            int ordinal = nextOrdinal();
+            while (ordinal < target) {
+                ordinal = nextOrdinal();
+            }
+            return ordinal;
+        }
+
+        private int readDelta() {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = deltas[offset++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return delta;
+        }
+    }
+
+    private final class BitmapIterator extends PostingsIterator {
+        private final long[] words = bitmap;
+        private final int limit = last;
+
+        @Override
+        public int nextOrdinal() {
+            return advance(current + 1);
+        }
+
+        @Override
+        public int advance(final int target) {
+            if (current >= target) {
+                return current;
+            }
+            if (target > limit) {
+                return current = NO_MORE_ORDINALS;
+            }
+
+            int word = target >>> 6;
+            long bits = words[word] & (-1L << target);
+            while (bits == 0) {
+                if (++word > (limit >>> 6)) {
+                    return current = NO_MORE_ORDINALS;
+                }
+                bits = words[word];
+            }
+            final int ordinal = (word << 6) + Long.numberOfTrailingZeros(bits);
+            return current = ordinal > limit ? NO_MORE_ORDINALS : ordinal;
+        }
+    }
+}
@@ -0,0 +1,443 @@
+package dms.index;
+
+import dms.document.Document;
+import dms.query.AndNode;
+import dms.query.NotNode;
+import dms.query.OrNode;
+import dms.query.Query;
+import dms.query.QueryNode;
+import dms.query.QueryVisitor;
+import dms.query.RangeNode;
+import dms.query.TermNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+/**
+ * 쿼리 실행 계획
+ *
+ * 평가 트리의 각 노드에 색인 통계로 추정한 후보 수를 붙인다.
+ * AND 노드는 추정치가 적은(선택도가 높은) 자식부터 실행한다.
+ * - 후보 수집 : 선택도 순서로 포스팅을 교차하며, 교집합이 비면 나머지 자식은 건너뛴다.
+ * - 후보 확인 : 같은 순서로 자식을 확인하여 가장 먼저 탈락시킬 수 있는 절을 앞에 둔다.
+ *
+ * explain 모드에서는 노드별 추정치, 실제 후보 수, 소요 시간을 기록한다.
+ */
+public class QueryPlan {
+    private final Step root;
+    private final boolean explain;
+
+    private int candidateCount = -1;
+    private int resultCount;
+    private long totalNanos;
+
+    QueryPlan(final DocumentIndex index, final Query query, final boolean explain) {
+        this.root = query.root().accept(new Planner(index));
+        this.explain = explain;
+    }
+
+    // documents 의 순서는 색인의 문서 번호와 같아야 한다. 삭제된 문서 자리(null)는 건너뛴다.
+    public List<Document> execute(final List<Document> documents) {
+        final int[] matches = matches(documents);
+        final List<Document> result = new ArrayList<>(matches.length);
+        for (final int ordinal : matches) {
+            result.add(documents.get(ordinal));
+        }
+        return result;
+    }
+
+    // 쿼리와 일치하는 문서 번호를 오름차순으로 반환한다.
+    public int[] matches(final List<Document> documents) {
+        final long start = System.nanoTime();
+        final Postings candidates = root.lookup();
+        final int[] result;
+
+        if (candidates == null) {
+            candidateCount = documents.size();
+            result = verify(documents, IntStream.range(0, documents.size()).toArray());
+        } else {
+            candidateCount = candidates.size();
+            final int[] ordinals = new int[candidates.size()];
+            final int[] count = {0};
+            candidates.forEach(ordinal -> ordinals[count[0]++] = ordinal);
+            result = verify(documents, ordinals);
+        }
+
+        resultCount = result.length;
+        totalNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private int[] verify(final List<Document> documents, final int[] candidates) {
+        int count = 0;
+        for (final int ordinal : candidates) {
+            final Document document = documents.get(ordinal);
+            if (document != null && root.matches(document, explain)) {
+                candidates[count++] = ordinal;
+            }
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    public Step getRoot() {
+        return root;
+    }
+
+    // 색인으로 좁힌 후보 수, 색인을 쓰지 못했다면 전체 문서 수
+    public int getCandidateCount() {
+        return candidateCount;
+    }
+
+    public int getResultCount() {
+        return resultCount;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder explanation = new StringBuilder();
+        explanation.append(String.format(Locale.ROOT, "QueryPlan: %d results from %d candidates in %.3f ms%n",
+            resultCount, candidateCount, millis(totalNanos)));
+        root.explain(explanation, 1);
+        return explanation.toString();
+    }
+
+    private static double millis(final long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * 실행 계획의 노드
+     */
+    public abstract static class Step {
+        private final QueryNode node;
+        private final int estimate;
+
+        // 이 노드의 후보 수, 실행되지 않았거나 색인으로 답하지 못했다면 -1
+        private int candidates = -1;
+        private long lookupNanos;
+        private long verifyNanos;
+
+        Step(final QueryNode node, final int estimate) {
+            this.node = node;
+            this.estimate = estimate;
+        }
+
+        // 후보 문서 목록, 색인으로 좁힐 수 없다면 null
+        abstract Postings find();
+
+        abstract boolean test(Document document, boolean explain);
+
+        public abstract String getLabel();
+
+        public List<Step> getChildren() {
+            return Collections.emptyList();
+        }
+
+        public QueryNode getNode() {
+            return node;
+        }
+
+        public int getEstimate() {
+            return estimate;
+        }
+
+        public int getCandidates() {
+            return candidates;
+        }
+
+        public long getLookupNanos() {
+            return lookupNanos;
+        }
+
+        public long getVerifyNanos() {
+            return verifyNanos;
+        }
+
+        final Postings lookup() {
+            final long start = System.nanoTime();
+            final Postings postings = find();
+            lookupNanos = System.nanoTime() - start;
+            if (postings != null) {
+                candidates = postings.size();
+            }
+            return postings;
+        }
+
+        final boolean matches(final Document document, final boolean explain) {
+            if (!explain) {
+                return test(document, false);
+            }
+            final long start = System.nanoTime();
+            final boolean matches = test(document, true);
+            verifyNanos += System.nanoTime() - start;
+            return matches;
+        }
+
+        private void explain(final StringBuilder explanation, final int level) {
+            for (int i = 0; i < level; i++) {
+                explanation.append("  ");
+            }
+            explanation.append(String.format(Locale.ROOT, "%s estimate=%s candidates=%s lookup=%.3f ms verify=%.3f ms%n",
+                getLabel(),
+                estimate == FieldIndex.UNKNOWN_ESTIMATE ? "?" : String.valueOf(estimate),
+                candidates == -1 ? "-" : String.valueOf(candidates),
+                millis(lookupNanos),
+                millis(verifyNanos)));
+            for (final Step child : getChildren()) {
+                child.explain(explanation, level + 1);
+            }
+        }
+    }
+
+    private static final class TermStep extends Step {
+        private final TermNode term;
+        private final List<FieldIndex> fieldIndexes;
+
+        private TermStep(final TermNode term, final List<FieldIndex> fieldIndexes) {
+            super(term, estimate(term, fieldIndexes));
+            this.term = term;
+            this.fieldIndexes = fieldIndexes;
+        }
+
+        private static int estimate(final TermNode term, final List<FieldIndex> fieldIndexes) {
+            int estimate = FieldIndex.UNKNOWN_ESTIMATE;
+            for (final FieldIndex fieldIndex : fieldIndexes) {
+                estimate = Math.min(estimate, fieldIndex.estimate(term.getValue()));
+            }
+            return estimate;
+        }
+
+        // 접두어 검색도 contains 후보의 부분집합이므로 같은 색인을 쓴다.
+        @Override
+        Postings find() {
+            Postings result = null;
+            for (final FieldIndex fieldIndex : fieldIndexes) {
+                final Postings postings = fieldIndex.candidates(term.getValue());
+                if (postings == null) {
+                    continue;
+                }
+                result = result == null ? postings : result.intersect(postings);
+                if (result.isEmpty()) {
+                    break;
+                }
+            }
+            return result;
+        }
+
+        @Override
+        boolean test(final Document document, final boolean explain) {
+            return term.test(document);
+        }
+
+        @Override
+        public String getLabel() {
+            return term.toString();
+        }
+    }
+
+    private static final class RangeStep extends Step {
+        private final RangeNode range;
+        private final NumericFieldIndex numericIndex;
+
+        private RangeStep(final RangeNode range, final NumericFieldIndex numericIndex) {
+            super(range, numericIndex == null ? FieldIndex.UNKNOWN_ESTIMATE : numericIndex.estimate(range));
+            this.range = range;
+            this.numericIndex = numericIndex;
+        }
+
+        @Override
+        Postings find() {
+            return numericIndex == null ? null : numericIndex.candidates(range);
+        }
+
+        @Override
+        boolean test(final Document document, final boolean explain) {
+            return range.test(document);
+        }
+
+        @Override
+        public String getLabel() {
+            return range.toString();
+        }
+    }
+
+    private static final class AndStep extends Step {
+        private final List<Step> children;
+
+        private AndStep(final AndNode node, final List<Step> children) {
+            super(node, children.get(0).getEstimate());
+            this.children = children;
+        }
+
+        @Override
+        Postings find() {
+            Postings result = null;
+            for (final Step child : children) {
+                final Postings postings = child.lookup();
+                if (postings == null) {
+                    continue;
+                }
+                result = result == null ? postings : result.intersect(postings);
+                if (result.isEmpty()) {
+                    break;
+                }
+            }
+            return result;
+        }
+
+        @Override
+        boolean test(final Document document, final boolean explain) {
+            for (final Step child : children) {
+                if (!child.matches(document, explain)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String getLabel() {
+            return "AND";
+        }
+
+        @Override
+        public List<Step> getChildren() {
+            return Collections.unmodifiableList(children);
+        }
+    }
+
+    private static final class OrStep extends Step {
+        private final List<Step> children;
+
+        private OrStep(final OrNode node, final List<Step> children) {
+            super(node, sum(children));
+            this.children = children;
+        }
+
+        private static int sum(final List<Step> children) {
+            long sum = 0;
+            for (final Step child : children) {
+                if (child.getEstimate() == FieldIndex.UNKNOWN_ESTIMATE) {
+                    return FieldIndex.UNKNOWN_ESTIMATE;
+                }
+                sum += child.getEstimate();
+            }
+            return (int) Math.min(sum, FieldIndex.UNKNOWN_ESTIMATE - 1);
+        }
+
+        // 하나라도 색인으로 답할 수 없는 자식이 있으면 전체를 확인해야 한다.
+        @Override
+        Postings find() {
+            final List<Postings> postings = new ArrayList<>();
+            for (final Step child : children) {
+                final Postings childPostings = child.lookup();
+                if (childPostings == null) {
+                    return null;
+                }
+                postings.add(childPostings);
+            }
+            return Postings.union(postings);
+        }
+
+        @Override
+        boolean test(final Document document, final boolean explain) {
+            for (final Step child : children) {
+                if (child.matches(document, explain)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String getLabel() {
+            return "OR";
+        }
+
+        @Override
+        public List<Step> getChildren() {
+            return Collections.unmodifiableList(children);
+        }
+    }
+
+    private static final class NotStep extends Step {
+        private final Step child;
+
+        private NotStep(final NotNode node, final Step child) {
+            super(node, FieldIndex.UNKNOWN_ESTIMATE);
+            this.child = child;
+        }
+
+        @Override
+        Postings find() {
+            return null;
+        }
+
+        @Override
+        boolean test(final Document document, final boolean explain) {
+            return !child.matches(document, explain);
+        }
+
+        @Override
+        public String getLabel() {
+            return "NOT";
+        }
+
+        @Override
+        public List<Step> getChildren() {
+            return Collections.singletonList(child);
+        }
+    }
+
+    private static final class Planner implements QueryVisitor<Step> {
+        private final DocumentIndex index;
+
+        private Planner(final DocumentIndex index) {
+            this.index = index;
+        }
+
+        @Override
+        public Step visitTerm(final TermNode node) {
+            return new TermStep(node, index.fieldIndexes(node.getAttributeName()));
+        }
+
+        @Override
+        public Step visitRange(final RangeNode node) {
+            return new RangeStep(node, index.numericIndex(node.getAttributeName()));
+        }
+
+        @Override
+        public Step visitAnd(final AndNode node) {
+            final List<Step> children = plan(node.getChildren());
+            children.sort(Comparator.comparingInt(Step::getEstimate));
+            return new AndStep(node, children);
+        }
+
+        @Override
+        public Step visitOr(final OrNode node) {
+            return new OrStep(node, plan(node.getChildren()));
+        }
+
+        @Override
+        public Step visitNot(final NotNode node) {
+            return new NotStep(node, node.getChild().accept(this));
+        }
+
+        private List<Step> plan(final List<QueryNode> nodes) {
+            final List<Step> steps = new ArrayList<>();
+            for (final QueryNode node : nodes) {
+                steps.add(node.accept(this));
+            }
+            return steps;
+        }
+    }
+}
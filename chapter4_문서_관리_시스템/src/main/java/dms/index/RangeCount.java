@@ -0,0 +1,34 @@
+package dms.index;
+
+/**
+ * 숫자 구간 [min, max) 에 속한 문서 수
+ * 첫 구간의 min 은 -∞, 마지막 구간의 max 는 +∞ 이다.
+ */
+public class RangeCount {
+    private final double min;
+    private final double max;
+    private final int count;
+
+    RangeCount(final double min, final double max, final int count) {
+        this.min = min;
+        this.max = max;
+        this.count = count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + min + ", " + max + ")=" + count;
+    }
+}
@@ -0,0 +1,201 @@
+package dms.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * body, address 처럼 긴 텍스트 속성을 단어 단위로 색인한다.
+ *
+ * 검색어는 부분 문자열이므로 양 끝 단어는 잘린 단어일 수 있다.
+ * - 첫 단어는 문서 단어의 접미사
+ * - 마지막 단어는 문서 단어의 접두사
+ * - 가운데 단어는 문서 단어와 정확히 일치
+ * 위 조건으로 후보를 좁히고 최종 확인은 Query 의 contains 로 한다.
+ *
+ * 관련도 순위(BM25)를 위해 단어 빈도와 문서별 단어 수도 함께 기록한다.
+ * 포스팅은 뒤에 추가만 하므로 제거된 문서는 포스팅에 남지만, 문서 수와 단어별 문서 수, 평균 길이에서는 뺀다.
+ */
+public class TokenizedFieldIndex implements FieldIndex {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    // 접미사 검색을 위해 뒤집은 단어도 함께 색인한다.
+    private final NavigableMap<String, Postings> reversedTerms = new TreeMap<>();
+    // 단어별 문서 내 빈도, 포스팅과 같은 순서로 저장한다.
+    private final Map<String, TermFrequencies> frequencies = new HashMap<>();
+    // 단어별로 포스팅에 남아 있는 제거된 문서 수
+    private final Map<String, Integer> removedFrequencies = new HashMap<>();
+    private int[] lengths = new int[16];
+    private int documentCount;
+    private long totalLength;
+
+    @Override
+    public void add(final int ordinal, final String value) {
+        final List<String> tokens = Tokenizer.tokenize(value);
+        final Map<String, Integer> counts = new LinkedHashMap<>();
+        for (final String token : tokens) {
+            counts.merge(token, 1, Integer::sum);
+        }
+
+        counts.forEach((token, count) -> {
+            terms.computeIfAbsent(token, key -> new Postings()).add(ordinal);
+            reversedTerms.computeIfAbsent(reverse(token), key -> new Postings()).add(ordinal);
+            frequencies.computeIfAbsent(token, key -> new TermFrequencies()).add(count);
+        });
+
+        if (ordinal >= lengths.length) {
+            lengths = Arrays.copyOf(lengths, Math.max(lengths.length * 2, ordinal + 1));
+        }
+        lengths[ordinal] = tokens.size();
+        documentCount++;
+        totalLength += tokens.size();
+    }
+
+    // 제거된 문서를 BM25 통계에서 뺀다. value 는 add 할 때와 같은 값이어야 한다.
+    public void remove(final int ordinal, final String value) {
+        final List<String> tokens = Tokenizer.tokenize(value);
+        for (final String token : new HashSet<>(tokens)) {
+            removedFrequencies.merge(token, 1, Integer::sum);
+        }
+        documentCount--;
+        totalLength -= lengths[ordinal];
+    }
+
+    // term 의 BM25 점수를 matches(오름차순 문서 번호)와 같은 위치의 scores 에 더한다.
+    void addScores(final String term, final int[] matches, final float[] scores) {
+        final Postings postings = terms.get(term);
+        if (postings == null || matches.length == 0) {
+            return;
+        }
+
+        final TermFrequencies termFrequencies = frequencies.get(term);
+        final int documentFrequency = postings.size() - removedFrequencies.getOrDefault(term, 0);
+        final double idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        final double averageLength = (double) totalLength / documentCount;
+
+        final Postings.PostingsIterator iterator = postings.iterator();
+        int match = 0;
+        int position = 0;
+        for (int ordinal = iterator.nextOrdinal();
+             ordinal != Postings.NO_MORE_ORDINALS && match < matches.length;
+             ordinal = iterator.nextOrdinal(), position++) {
+            while (match < matches.length && matches[match] < ordinal) {
+                match++;
+            }
+            if (match < matches.length && matches[match] == ordinal) {
+                final int frequency = termFrequencies.get(position);
+                final double normalization = K1 * (1 - B + B * lengths[ordinal] / averageLength);
+                scores[match] += (float) (idf * frequency * (K1 + 1) / (frequency + normalization));
+            }
+        }
+    }
+
+    @Override
+    public Postings candidates(final String queryValue) {
+        final List<String> tokens = Tokenizer.tokenize(queryValue);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+
+        final boolean leftOpen = Tokenizer.isTokenChar(queryValue.charAt(0));
+        final boolean rightOpen = Tokenizer.isTokenChar(queryValue.charAt(queryValue.length() - 1));
+        final int last = tokens.size() - 1;
+
+        Postings result = null;
+        for (int i = 0; i <= last; i++) {
+            final Postings postings = candidates(tokens.get(i), i == 0 && leftOpen, i == last && rightOpen);
+            result = result == null ? postings : result.intersect(postings);
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    // 잘리지 않은 가운데 단어 중 가장 드문 단어의 문서 수가 상한이 된다.
+    @Override
+    public int estimate(final String queryValue) {
+        if (queryValue.isEmpty()) {
+            return UNKNOWN_ESTIMATE;
+        }
+
+        final List<String> tokens = Tokenizer.tokenize(queryValue);
+        final int first = Tokenizer.isTokenChar(queryValue.charAt(0)) ? 1 : 0;
+        final int last = Tokenizer.isTokenChar(queryValue.charAt(queryValue.length() - 1))
+            ? tokens.size() - 1
+            : tokens.size();
+
+        int estimate = UNKNOWN_ESTIMATE;
+        for (int i = first; i < last; i++) {
+            final Postings exact = terms.get(tokens.get(i));
+            estimate = Math.min(estimate, exact == null ? 0 : exact.size());
+        }
+        return estimate;
+    }
+
+    private Postings candidates(final String token, final boolean leftOpen, final boolean rightOpen) {
+        if (leftOpen && rightOpen) {
+            final List<Postings> matches = new ArrayList<>();
+            for (final Map.Entry<String, Postings> entry : terms.entrySet()) {
+                if (entry.getKey().contains(token)) {
+                    matches.add(entry.getValue());
+                }
+            }
+            return Postings.union(matches);
+        }
+        if (leftOpen) {
+            return unionOf(prefixed(reversedTerms, reverse(token)).values());
+        }
+        if (rightOpen) {
+            return unionOf(prefixed(terms, token).values());
+        }
+        final Postings exact = terms.get(token);
+        return exact == null ? Postings.empty() : exact;
+    }
+
+    private static NavigableMap<String, Postings> prefixed(
+        final NavigableMap<String, Postings> dictionary,
+        final String prefix
+    ) {
+        return dictionary.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static Postings unionOf(final Collection<Postings> postings) {
+        if (postings.size() == 1) {
+            return postings.iterator().next();
+        }
+        return Postings.union(postings);
+    }
+
+    private static String reverse(final String token) {
+        return new StringBuilder(token).reverse().toString();
+    }
+
+    /**
+     * 단어 빈도 목록, 255 이상은 255 로 저장한다. (BM25 는 빈도가 커질수록 점수가 포화된다.)
+     */
+    private static final class TermFrequencies {
+        private byte[] values = new byte[4];
+        private int size;
+
+        private void add(final int frequency) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = (byte) Math.min(frequency, 255);
+        }
+
+        private int get(final int position) {
+            return values[position] & 0xFF;
+        }
+    }
+}
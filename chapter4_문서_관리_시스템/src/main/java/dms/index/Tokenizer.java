@@ -0,0 +1,37 @@
+package dms.index;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 글자와 숫자가 연속된 구간을 하나의 단어로 본다.
+ * Query 의 contains 와 결과가 같아야 하므로 대소문자는 그대로 유지한다.
+ */
+public final class Tokenizer {
+
+    private Tokenizer() {
+    }
+
+    public static List<String> tokenize(final String text) {
+        final List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i < text.length(); i++) {
+            if (isTokenChar(text.charAt(i))) {
+                if (start == -1) {
+                    start = i;
+                }
+            } else if (start != -1) {
+                tokens.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        if (start != -1) {
+            tokens.add(text.substring(start));
+        }
+        return tokens;
+    }
+
+    public static boolean isTokenChar(final char c) {
+        return Character.isLetterOrDigit(c);
+    }
+}
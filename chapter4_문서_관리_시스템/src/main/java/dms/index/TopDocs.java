@@ -0,0 +1,33 @@
+package dms.index;
+
+/**
+ * 점수 순으로 정렬된 상위 문서 번호와 점수
+ */
+public class TopDocs {
+    private final int[] ordinals;
+    private final float[] scores;
+    private final int totalHits;
+
+    TopDocs(final int[] ordinals, final float[] scores, final int totalHits) {
+        this.ordinals = ordinals;
+        this.scores = scores;
+        this.totalHits = totalHits;
+    }
+
+    public int size() {
+        return ordinals.length;
+    }
+
+    public int ordinal(final int rank) {
+        return ordinals[rank];
+    }
+
+    public float score(final int rank) {
+        return scores[rank];
+    }
+
+    // 점수와 관계없이 쿼리와 일치한 전체 문서 수
+    public int getTotalHits() {
+        return totalHits;
+    }
+}
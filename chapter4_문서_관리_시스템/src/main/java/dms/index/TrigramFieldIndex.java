@@ -0,0 +1,97 @@
+package dms.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 속성 값을 연속된 세 글자(trigram) 단위로 색인한다.
+ *
+ * 값이 검색어를 포함한다면 검색어의 모든 trigram 도 포함하므로
+ * trigram 포스팅의 교집합은 contains 검색의 후보 집합이 된다.
+ * 세 글자보다 짧은 값은 값 전체를 하나의 gram 으로 색인한다.
+ */
+public class TrigramFieldIndex implements FieldIndex {
+    private static final int GRAM_LENGTH = 3;
+
+    private final Map<String, Postings> grams = new HashMap<>();
+
+    @Override
+    public void add(final int ordinal, final String value) {
+        for (final String gram : grams(value)) {
+            grams.computeIfAbsent(gram, key -> new Postings()).add(ordinal);
+        }
+    }
+
+    @Override
+    public Postings candidates(final String queryValue) {
+        if (queryValue.isEmpty()) {
+            return null;
+        }
+        if (queryValue.length() < GRAM_LENGTH) {
+            return shortCandidates(queryValue);
+        }
+
+        final List<Postings> postings = new ArrayList<>();
+        for (final String gram : grams(queryValue)) {
+            final Postings gramPostings = grams.get(gram);
+            if (gramPostings == null) {
+                return Postings.empty();
+            }
+            postings.add(gramPostings);
+        }
+
+        // 작은 포스팅부터 교집합을 구해야 중간 결과가 빨리 줄어든다.
+        postings.sort(Comparator.comparingInt(Postings::size));
+        Postings result = postings.get(0);
+        for (int i = 1; i < postings.size() && !result.isEmpty(); i++) {
+            result = result.intersect(postings.get(i));
+        }
+        return result;
+    }
+
+    // 가장 드문 trigram 의 문서 수가 상한이 된다.
+    @Override
+    public int estimate(final String queryValue) {
+        if (queryValue.length() < GRAM_LENGTH) {
+            return UNKNOWN_ESTIMATE;
+        }
+
+        int estimate = UNKNOWN_ESTIMATE;
+        for (final String gram : grams(queryValue)) {
+            final Postings gramPostings = grams.get(gram);
+            if (gramPostings == null) {
+                return 0;
+            }
+            estimate = Math.min(estimate, gramPostings.size());
+        }
+        return estimate;
+    }
+
+    // 짧은 검색어는 검색어를 포함하는 gram 의 합집합이 후보가 된다.
+    private Postings shortCandidates(final String queryValue) {
+        final List<Postings> matches = new ArrayList<>();
+        for (final Map.Entry<String, Postings> entry : grams.entrySet()) {
+            if (entry.getKey().contains(queryValue)) {
+                matches.add(entry.getValue());
+            }
+        }
+        return Postings.union(matches);
+    }
+
+    private static Set<String> grams(final String value) {
+        final Set<String> result = new LinkedHashSet<>();
+        if (value.length() < GRAM_LENGTH) {
+            result.add(value);
+            return result;
+        }
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            result.add(value.substring(i, i + GRAM_LENGTH));
+        }
+        return result;
+    }
+}
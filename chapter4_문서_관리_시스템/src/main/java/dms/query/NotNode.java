@@ -0,0 +1,30 @@
+package dms.query;
+
+import dms.document.Document;
+
+public class NotNode implements QueryNode {
+    private final QueryNode child;
+
+    public NotNode(final QueryNode child) {
+        this.child = child;
+    }
+
+    public QueryNode getChild() {
+        return child;
+    }
+
+    @Override
+    public boolean test(final Document document) {
+        return !child.test(document);
+    }
+
+    @Override
+    public <R> R accept(final QueryVisitor<R> visitor) {
+        return visitor.visitNot(this);
+    }
+
+    @Override
+    public String toString() {
+        return "NOT " + child;
+    }
+}
@@ -0,0 +1,41 @@
+package dms.query;
+
+import dms.document.Document;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class OrNode implements QueryNode {
+    private final List<QueryNode> children;
+
+    public OrNode(final List<QueryNode> children) {
+        this.children = Collections.unmodifiableList(children);
+    }
+
+    public List<QueryNode> getChildren() {
+        return children;
+    }
+
+    @Override
+    public boolean test(final Document document) {
+        for (final QueryNode child : children) {
+            if (child.test(document)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public <R> R accept(final QueryVisitor<R> visitor) {
+        return visitor.visitOr(this);
+    }
+
+    @Override
+    public String toString() {
+        return children.stream()
+            .map(QueryNode::toString)
+            .collect(Collectors.joining(" OR ", "(", ")"));
+    }
+}
@@ -2,36 +2,43 @@ package dms.query;
 
 import dms.document.Document;
 
-import java.util.Arrays;
-import java.util.Map;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 public class Query implements Predicate<Document> {
-    private final Map<String, String> caluses;
+    private final QueryNode root;
+    private final String normalized;
 
     // 커스텀한 쿼리 형식 사용
     // 쿼리 형식 -> patient:Joe,body:Diet Coke
+    // AND / OR / NOT, 괄호, "따옴표 구문", 접두어(Jo*), 숫자 범위(amount>=500, width:[800 TO 1920])를 지원한다.
+    // 문법은 QueryParser 참고
     public static Query parse(final String query) {
-        return new Query(Arrays.stream(query.split(","))
-            .map(str -> str.split(":"))
-            .collect(Collectors.toMap(x -> x[0], x -> x[1]))
-        );
+        return new Query(QueryParser.parse(query));
     }
 
-    private Query(final Map<String, String> caluses) {
-        this.caluses = caluses;
+    private Query(final QueryNode root) {
+        this.root = root;
+        this.normalized = root.accept(new QueryNormalizer());
+    }
+
+    // 컴파일된 평가 트리
+    public QueryNode root() {
+        return root;
+    }
+
+    // 결과가 같은 쿼리라면 같은 문자열, 검색 결과 캐시의 키로 쓴다.
+    public String normalized() {
+        return normalized;
     }
 
     // 쿼리 검색
     @Override
     public boolean test(final Document document) {
-        return caluses.entrySet()
-            .stream()
-            .allMatch(entry -> {
-                final String documentValue = document.getAttribute(entry.getKey());
-                final String queryValue = entry.getValue();
-                return documentValue != null && documentValue.contains(queryValue);
-            });
+        return root.test(document);
+    }
+
+    @Override
+    public String toString() {
+        return root.toString();
     }
 }
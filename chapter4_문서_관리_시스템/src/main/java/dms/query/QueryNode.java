@@ -0,0 +1,12 @@
+package dms.query;
+
+import dms.document.Document;
+
+import java.util.function.Predicate;
+
+/**
+ * 컴파일된 쿼리의 평가 트리 노드
+ */
+public interface QueryNode extends Predicate<Document> {
+    <R> R accept(QueryVisitor<R> visitor);
+}
@@ -0,0 +1,46 @@
+package dms.query;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 결과가 같은 쿼리를 같은 문자열로 바꾼다. 검색 결과 캐시의 키로 쓴다.
+ * - 공백, 따옴표 등 표기 차이는 파싱 후 트리에서 사라진다.
+ * - AND / OR 의 자식 순서는 결과에 영향이 없으므로 정렬한다.
+ * - 검색어는 따옴표로 감싸 구분자와 섞이지 않게 한다.
+ */
+class QueryNormalizer implements QueryVisitor<String> {
+    @Override
+    public String visitTerm(final TermNode node) {
+        final String value = node.getValue().replace("\\", "\\\\").replace("\"", "\\\"");
+        return node.getAttributeName() + ":\"" + value + "\"" + (node.isPrefix() ? "*" : "");
+    }
+
+    @Override
+    public String visitRange(final RangeNode node) {
+        return node.getAttributeName() + ":" + (node.isMinInclusive() ? "[" : "{")
+            + node.getMin() + " TO " + node.getMax() + (node.isMaxInclusive() ? "]" : "}");
+    }
+
+    @Override
+    public String visitAnd(final AndNode node) {
+        return join(node.getChildren(), " AND ");
+    }
+
+    @Override
+    public String visitOr(final OrNode node) {
+        return join(node.getChildren(), " OR ");
+    }
+
+    @Override
+    public String visitNot(final NotNode node) {
+        return "NOT " + node.getChild().accept(this);
+    }
+
+    private String join(final List<QueryNode> children, final String operator) {
+        return children.stream()
+            .map(child -> child.accept(this))
+            .sorted()
+            .collect(Collectors.joining(operator, "(", ")"));
+    }
+}
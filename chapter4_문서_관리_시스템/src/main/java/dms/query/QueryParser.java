@@ -0,0 +1,265 @@
+package dms.query;
+
+import dms.constants.Attributes;
+import dms.errors.QuerySyntaxException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 쿼리 문자열을 평가 트리로 컴파일한다.
+ *
+ * query   := or
+ * or      := and ("OR" and)*
+ * and     := unary (("," | "AND") unary)*
+ * unary   := "NOT" unary | "(" or ")" | clause
+ * clause  := field ":" value
+ *          | field ":" "[" number "TO" number "]"
+ *          | field (">" | ">=" | "<" | "<=") number
+ * value   := '"' phrase '"' | bare | bare "*"
+ *
+ * 기존 형식(patient:Joe,body:Diet Coke)과 호환되도록 따옴표 없는 값은
+ * ',' 나 다음 AND / OR 키워드 직전까지를 값으로 본다.
+ */
+final class QueryParser {
+    private final String input;
+    private int position;
+    private int depth;
+
+    private QueryParser(final String input) {
+        this.input = input;
+    }
+
+    static QueryNode parse(final String query) {
+        final QueryParser parser = new QueryParser(query);
+        final QueryNode node = parser.parseOr();
+        parser.skipWhitespace();
+        if (!parser.isEnd()) {
+            throw parser.error("Unexpected '" + parser.peek() + "'");
+        }
+        return node;
+    }
+
+    private QueryNode parseOr() {
+        final List<QueryNode> children = new ArrayList<>();
+        children.add(parseAnd());
+        while (consumeKeyword("OR")) {
+            children.add(parseAnd());
+        }
+        return children.size() == 1 ? children.get(0) : new OrNode(children);
+    }
+
+    private QueryNode parseAnd() {
+        final List<QueryNode> children = new ArrayList<>();
+        children.add(parseUnary());
+        while (true) {
+            skipWhitespace();
+            if (!isEnd() && peek() == ',') {
+                position++;
+            } else if (!consumeKeyword("AND")) {
+                break;
+            }
+            children.add(parseUnary());
+        }
+        return children.size() == 1 ? children.get(0) : new AndNode(children);
+    }
+
+    private QueryNode parseUnary() {
+        if (consumeKeyword("NOT")) {
+            return new NotNode(parseUnary());
+        }
+
+        skipWhitespace();
+        if (!isEnd() && peek() == '(') {
+            position++;
+            depth++;
+            final QueryNode node = parseOr();
+            skipWhitespace();
+            expect(')');
+            depth--;
+            return node;
+        }
+        return parseClause();
+    }
+
+    private QueryNode parseClause() {
+        skipWhitespace();
+        final int start = position;
+        while (!isEnd() && (Character.isLetterOrDigit(peek()) || peek() == '_')) {
+            position++;
+        }
+        final String field = input.substring(start, position);
+        if (field.isEmpty()) {
+            throw error("Attribute name expected");
+        }
+
+        // 속성 이름과 연산자 사이의 공백을 허용한다. (amount > 500)
+        skipWhitespace();
+        if (!isEnd() && (peek() == '>' || peek() == '<')) {
+            return parseComparison(field);
+        }
+
+        expect(':');
+        if (isEnd()) {
+            throw error("Value expected for " + field);
+        }
+        if (peek() == '[') {
+            return parseRange(field);
+        }
+        if (peek() == '"') {
+            return new TermNode(field, parseQuoted(), false);
+        }
+        return parseBare(field);
+    }
+
+    private QueryNode parseComparison(final String field) {
+        final boolean greater = peek() == '>';
+        position++;
+        final boolean inclusive = !isEnd() && peek() == '=';
+        if (inclusive) {
+            position++;
+        }
+
+        final double number = parseNumber();
+        checkNumeric(field);
+        return greater
+            ? new RangeNode(field, number, inclusive, Double.POSITIVE_INFINITY, true)
+            : new RangeNode(field, Double.NEGATIVE_INFINITY, true, number, inclusive);
+    }
+
+    private QueryNode parseRange(final String field) {
+        expect('[');
+        final double min = parseBound(Double.NEGATIVE_INFINITY);
+        if (!consumeKeyword("TO")) {
+            throw error("TO expected in range");
+        }
+        final double max = parseBound(Double.POSITIVE_INFINITY);
+        skipWhitespace();
+        expect(']');
+        checkNumeric(field);
+        return new RangeNode(field, min, true, max, true);
+    }
+
+    private double parseBound(final double unbounded) {
+        skipWhitespace();
+        if (!isEnd() && peek() == '*') {
+            position++;
+            return unbounded;
+        }
+        return parseNumber();
+    }
+
+    private double parseNumber() {
+        skipWhitespace();
+        final int start = position;
+        while (!isEnd() && (Character.isDigit(peek()) || peek() == '.' || peek() == '-')) {
+            position++;
+        }
+        try {
+            return Double.parseDouble(input.substring(start, position));
+        } catch (NumberFormatException e) {
+            throw error("Number expected");
+        }
+    }
+
+    private String parseQuoted() {
+        expect('"');
+        final StringBuilder value = new StringBuilder();
+        while (!isEnd() && peek() != '"') {
+            if (peek() == '\\' && position + 1 < input.length()) {
+                position++;
+            }
+            value.append(input.charAt(position++));
+        }
+        expect('"');
+        if (value.length() == 0) {
+            throw error("Empty phrase");
+        }
+        return value.toString();
+    }
+
+    private QueryNode parseBare(final String field) {
+        final int start = position;
+        int end = position;
+        while (!isEnd()) {
+            final char c = peek();
+            if (c == ',' || (c == ')' && depth > 0)) {
+                break;
+            }
+            if (Character.isWhitespace(c) && keywordFollows()) {
+                break;
+            }
+            position++;
+            end = position;
+        }
+
+        String value = input.substring(start, end);
+        final boolean prefix = value.length() > 1 && value.endsWith("*");
+        if (prefix) {
+            value = value.substring(0, value.length() - 1);
+        }
+        if (value.isEmpty()) {
+            throw error("Value expected for " + field);
+        }
+        return new TermNode(field, value, prefix);
+    }
+
+    // 공백 뒤에 AND / OR 키워드가 오는지 확인한다.
+    private boolean keywordFollows() {
+        int next = position;
+        while (next < input.length() && Character.isWhitespace(input.charAt(next))) {
+            next++;
+        }
+        return isKeywordAt(next, "AND") || isKeywordAt(next, "OR");
+    }
+
+    private boolean consumeKeyword(final String keyword) {
+        skipWhitespace();
+        if (isKeywordAt(position, keyword)) {
+            position += keyword.length();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean isKeywordAt(final int index, final String keyword) {
+        if (!input.startsWith(keyword, index)) {
+            return false;
+        }
+        final int after = index + keyword.length();
+        return after == input.length()
+            || Character.isWhitespace(input.charAt(after))
+            || input.charAt(after) == '(';
+    }
+
+    private void checkNumeric(final String field) {
+        if (!Attributes.NUMERIC.contains(field)) {
+            throw new QuerySyntaxException("Range is only supported for numeric attributes " + Attributes.NUMERIC + ": " + field);
+        }
+    }
+
+    private void expect(final char expected) {
+        if (isEnd() || peek() != expected) {
+            throw error("'" + expected + "' expected");
+        }
+        position++;
+    }
+
+    private void skipWhitespace() {
+        while (!isEnd() && Character.isWhitespace(peek())) {
+            position++;
+        }
+    }
+
+    private boolean isEnd() {
+        return position >= input.length();
+    }
+
+    private char peek() {
+        return input.charAt(position);
+    }
+
+    private QuerySyntaxException error(final String message) {
+        return new QuerySyntaxException(message + " at position " + position + ": " + input);
+    }
+}
@@ -0,0 +1,16 @@
+package dms.query;
+
+/**
+ * 평가 트리를 순회하며 실행 계획 등 다른 형태로 변환할 때 사용한다.
+ */
+public interface QueryVisitor<R> {
+    R visitTerm(TermNode node);
+
+    R visitRange(RangeNode node);
+
+    R visitAnd(AndNode node);
+
+    R visitOr(OrNode node);
+
+    R visitNot(NotNode node);
+}
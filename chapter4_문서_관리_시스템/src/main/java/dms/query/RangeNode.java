@@ -0,0 +1,97 @@
+package dms.query;
+
+import dms.document.Document;
+
+/**
+ * 숫자 속성의 범위 절
+ * amount>=500, width:[800 TO 1920] 과 같이 작성한다.
+ */
+public class RangeNode implements QueryNode {
+    private final String attributeName;
+    private final double min;
+    private final boolean minInclusive;
+    private final double max;
+    private final boolean maxInclusive;
+
+    public RangeNode(
+        final String attributeName,
+        final double min,
+        final boolean minInclusive,
+        final double max,
+        final boolean maxInclusive
+    ) {
+        this.attributeName = attributeName;
+        this.min = min;
+        this.minInclusive = minInclusive;
+        this.max = max;
+        this.maxInclusive = maxInclusive;
+    }
+
+    // "$1,250.50" 처럼 기호가 섞인 속성 값에서 숫자만 읽는다. 숫자가 없다면 NaN
+    public static double parseNumber(final String value) {
+        final StringBuilder digits = new StringBuilder();
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (Character.isDigit(c) || c == '.' || c == '-') {
+                digits.append(c);
+            }
+        }
+        try {
+            return digits.length() == 0 ? Double.NaN : Double.parseDouble(digits.toString());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    public String getAttributeName() {
+        return attributeName;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public boolean isMinInclusive() {
+        return minInclusive;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public boolean isMaxInclusive() {
+        return maxInclusive;
+    }
+
+    public boolean contains(final double number) {
+        if (Double.isNaN(number)) {
+            return false;
+        }
+        final boolean aboveMin = minInclusive ? number >= min : number > min;
+        final boolean belowMax = maxInclusive ? number <= max : number < max;
+        return aboveMin && belowMax;
+    }
+
+    @Override
+    public boolean test(final Document document) {
+        final String documentValue = document.getAttribute(attributeName);
+        return documentValue != null && contains(parseNumber(documentValue));
+    }
+
+    @Override
+    public <R> R accept(final QueryVisitor<R> visitor) {
+        return visitor.visitRange(this);
+    }
+
+    @Override
+    public String toString() {
+        return attributeName + ":" + (minInclusive ? "[" : "{") + bound(min) + " TO " + bound(max) + (maxInclusive ? "]" : "}");
+    }
+
+    private static String bound(final double bound) {
+        if (Double.isInfinite(bound)) {
+            return "*";
+        }
+        return bound == Math.rint(bound) ? String.valueOf((long) bound) : String.valueOf(bound);
+    }
+}
@@ -0,0 +1,49 @@
+package dms.query;
+
+import dms.document.Document;
+
+/**
+ * 속성 값에 검색어가 포함되어 있는지(또는 검색어로 시작하는지) 확인하는 절
+ */
+public class TermNode implements QueryNode {
+    private final String attributeName;
+    private final String value;
+    private final boolean prefix;
+
+    public TermNode(final String attributeName, final String value, final boolean prefix) {
+        this.attributeName = attributeName;
+        this.value = value;
+        this.prefix = prefix;
+    }
+
+    public String getAttributeName() {
+        return attributeName;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public boolean isPrefix() {
+        return prefix;
+    }
+
+    @Override
+    public boolean test(final Document document) {
+        final String documentValue = document.getAttribute(attributeName);
+        if (documentValue == null) {
+            return false;
+        }
+        return prefix ? documentValue.startsWith(value) : documentValue.contains(value);
+    }
+
+    @Override
+    public <R> R accept(final QueryVisitor<R> visitor) {
+        return visitor.visitTerm(this);
+    }
+
+    @Override
+    public String toString() {
+        return attributeName + ":" + value + (prefix ? "*" : "");
+    }
+}
@@ -0,0 +1,435 @@
+package dms.store;
+
+import dms.document.Document;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static dms.constants.Attributes.PATH;
+
+/**
+ * 문서 속성을 로컬 디스크에 보관하는 저장소
+ *
+ * - 세그먼트 파일(segment-00000001.dms)에 레코드를 뒤에 덧붙이기만 한다.
+ * - 세그먼트가 일정 크기를 넘으면 새 세그먼트를 만든다.
+ * - 대체되거나 삭제되어 더는 읽지 않는 레코드(garbage)가 최신 레코드보다 많아지면
+ *   경로별 최신 레코드만 새 세그먼트로 옮겨 병합한다.
+ *   세그먼트 수가 아니라 garbage 비율로 병합하므로 저장소가 커져도 병합 비용은 기록한 양에 비례한다.
+ * - 시작 시에는 세그먼트를 메모리 맵으로 읽는다. 같은 경로는 나중 레코드가 이긴다.
+ * - 삭제는 경로만 담은 DELETE 레코드로 기록하고, 병합 시 해당 경로는 옮기지 않는다.
+ * - 내용 해시와 함께 기록하면, 같은 내용의 문서가 이미 기록된 경우 속성 대신 해시만 담은 LINK 레코드를 쓴다.
+ *   LINK 는 그 시점까지 읽은 같은 해시의 마지막 CONTENT 레코드를 가리키며 경로만 바꿔 복원한다.
+ *
+ * 레코드 : [payload 길이][payload CRC32][payload]
+ * PUT     : [종류, 경로, 수정 시각, 속성 수, (이름, 값)...]
+ * CONTENT : [종류, 경로, 수정 시각, 내용 해시, 속성 수, (이름, 값)...]
+ * LINK    : [종류, 경로, 수정 시각, 내용 해시]
+ * DELETE  : [종류, 경로]
+ * 마지막 세그먼트 끝의 잘린 레코드(쓰는 도중 종료된 경우)는 버린다.
+ * 세그먼트를 만든 직후 헤더를 쓰기 전에 종료되어 헤더가 없는 마지막 세그먼트는 지운다.
+ */
+public class DocumentStore implements Closeable {
+    private static final int MAGIC = 0x444D5331;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final byte CONTENT = 3;
+    private static final byte LINK = 4;
+    private static final long SEGMENT_SIZE = 64L * 1024 * 1024;
+    // garbage 가 이보다 적다면 병합하지 않는다.
+    private static final long MIN_MERGE_BYTES = SEGMENT_SIZE;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".dms";
+
+    private final Path directory;
+    private final List<Path> segments = new ArrayList<>();
+    private final Map<String, StoredDocument> documents = new LinkedHashMap<>();
+    // 내용 해시별로 모든 세그먼트에서 속성까지 기록된 마지막 문서, LINK 가 가리키는 대상
+    // 병합은 모든 레코드를 다시 쓰므로 그때만 비운다.
+    private final Map<Long, Document> contents = new HashMap<>();
+    // 경로별 최신 레코드의 크기(바이트)
+    private final Map<String, Integer> recordSizes = new HashMap<>();
+    private long liveBytes;
+    private long garbageBytes;
+
+    private FileChannel writer;
+    private long writerSize;
+
+    // 테스트에서 장애를 주입할 수 있도록 상속을 허용한다. 보통은 open 으로 연다.
+    protected DocumentStore(final Path directory) {
+        this.directory = directory;
+    }
+
+    public static DocumentStore open(final Path directory) throws IOException {
+        Files.createDirectories(directory);
+        final DocumentStore store = new DocumentStore(directory);
+        store.load();
+        return store;
+    }
+
+    // 경로별 최신 문서, 처음 저장된 순서
+    public Collection<StoredDocument> documents() {
+        return Collections.unmodifiableCollection(documents.values());
+    }
+
+    // 저장되지 않은 경로라면 null
+    public synchronized StoredDocument get(final String path) {
+        return documents.get(path);
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    // 대체되거나 삭제된 레코드와 DELETE 레코드의 크기 합
+    synchronized long garbageBytes() {
+        return garbageBytes;
+    }
+
+    public synchronized void append(final String path, final long lastModified, final Document document) throws IOException {
+        final byte[] payload = encode(path, lastModified, document);
+        writeRecord(payload);
+        documents.put(path, new StoredDocument(path, lastModified, OptionalLong.empty(), document));
+        replaced(path, payload.length);
+        mergeIfNeeded();
+    }
+
+    // 내용 해시와 함께 기록한다. 같은 내용이 이미 기록되어 있다면 속성은 다시 기록하지 않는다.
+    public synchronized void append(final String path, final long lastModified, final long contentHash,
+                                    final Document document) throws IOException {
+        final byte[] payload = encode(path, lastModified, contentHash, document);
+        writeRecord(payload);
+        documents.put(path, new StoredDocument(path, lastModified, OptionalLong.of(contentHash), document));
+        replaced(path, payload.length);
+        mergeIfNeeded();
+    }
+
+    // 저장되지 않은 경로라면 아무것도 기록하지 않는다.
+    public synchronized void delete(final String path) throws IOException {
+        if (!documents.containsKey(path)) {
+            return;
+        }
+        final byte[] payload = encodeDelete(path);
+        writeRecord(payload);
+        documents.remove(path);
+        deleted(path, payload.length);
+        mergeIfNeeded();
+    }
+
+    // 기록한 내용을 디스크에 반영한다.
+    public synchronized void flush() throws IOException {
+        if (writer != null) {
+            writer.force(false);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.force(false);
+            writer.close();
+            writer = null;
+        }
+    }
+
+    // 경로별 최신 레코드만 새 세그먼트에 옮겨 적고 이전 세그먼트를 지운다.
+    // 옮기는 도중 종료되어도 이전 세그먼트가 남아 있으므로 다음 시작 시 같은 내용을 읽는다.
+    synchronized void merge() throws IOException {
+        final List<Path> merged = new ArrayList<>(segments);
+        roll();
+        contents.clear();
+        recordSizes.clear();
+        liveBytes = 0;
+        garbageBytes = 0;
+        for (final StoredDocument stored : documents.values()) {
+            final byte[] payload = stored.getContentHash().isPresent()
+                ? encode(stored.getPath(), stored.getLastModified(), stored.getContentHash().getAsLong(), stored.getDocument())
+                : encode(stored.getPath(), stored.getLastModified(), stored.getDocument());
+            if (writerSize + payload.length + 8 > SEGMENT_SIZE && writerSize > 4) {
+                roll();
+            }
+            write(payload);
+            replaced(stored.getPath(), payload.length);
+        }
+        writer.force(false);
+
+        for (final Path segment : merged) {
+            Files.delete(segment);
+        }
+        segments.removeAll(merged);
+    }
+
+    private void writeRecord(final byte[] payload) throws IOException {
+        if (writer == null || writerSize + payload.length + 8 > SEGMENT_SIZE && writerSize > 4) {
+            roll();
+        }
+        write(payload);
+    }
+
+    // garbage 가 최신 레코드보다 많아지면 병합한다. 병합 비용은 그동안 쌓인 garbage 이상 들지 않는다.
+    private void mergeIfNeeded() throws IOException {
+        if (garbageBytes >= MIN_MERGE_BYTES && garbageBytes > liveBytes) {
+            merge();
+        }
+    }
+
+    // 경로의 이전 레코드는 garbage 가 된다. 크기는 레코드 헤더를 포함한다.
+    private void replaced(final String path, final int payloadLength) {
+        final Integer previous = recordSizes.put(path, payloadLength + 8);
+        liveBytes += payloadLength + 8;
+        if (previous != null) {
+            liveBytes -= previous;
+            garbageBytes += previous;
+        }
+    }
+
+    // 경로의 이전 레코드와 DELETE 레코드 자체가 garbage 가 된다.
+    private void deleted(final String path, final int payloadLength) {
+        final Integer previous = recordSizes.remove(path);
+        if (previous != null) {
+            liveBytes -= previous;
+            garbageBytes += previous;
+        }
+        garbageBytes += payloadLength + 8;
+    }
+
+    private void load() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            segments.addAll(files
+                .filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                .filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                .sorted()
+                .collect(Collectors.toList()));
+        }
+
+        for (int i = 0; i < segments.size(); i++) {
+            final Path segment = segments.get(i);
+            final boolean last = i == segments.size() - 1;
+            final long validLength = read(segment, last);
+            if (last && validLength == 0) {
+                // 남겨 두면 다음 세그먼트가 뒤에 생겨 마지막이 아니게 되므로 다시 열 수 없다.
+                Files.delete(segment);
+                segments.remove(i);
+            } else if (last && validLength < Files.size(segment)) {
+                try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                    channel.truncate(validLength);
+                }
+            }
+        }
+    }
+
+    // 세그먼트를 읽어 문서를 복원하고 정상적으로 읽은 길이를 반환한다.
+    private long read(final Path segment, final boolean last) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 4 || buffer.getInt() != MAGIC) {
+                if (last) {
+                    return 0;
+                }
+                throw new IOException("Not a document segment: " + segment);
+            }
+
+            while (buffer.remaining() >= 8) {
+                final int start = buffer.position();
+                final int length = buffer.getInt();
+                final int checksum = buffer.getInt();
+                if (length < 0 || length > buffer.remaining()) {
+                    return corrupted(segment, last, start);
+                }
+
+                final byte[] payload = new byte[length];
+                buffer.get(payload);
+                if (checksum(payload) != checksum) {
+                    return corrupted(segment, last, start);
+                }
+                decode(ByteBuffer.wrap(payload), length);
+            }
+            if (buffer.remaining() > 0) {
+                return corrupted(segment, last, buffer.position());
+            }
+            return buffer.position();
+        }
+    }
+
+    private static long corrupted(final Path segment, final boolean last, final int position) throws IOException {
+        if (!last) {
+            throw new IOException("Corrupted record at " + position + " in " + segment);
+        }
+        return position;
+    }
+
+    private void roll() throws IOException {
+        if (writer != null) {
+            writer.force(false);
+            writer.close();
+        }
+
+        final Path segment = directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, nextSegmentNumber(), SEGMENT_SUFFIX));
+        writer = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        segments.add(segment);
+
+        final ByteBuffer header = ByteBuffer.allocate(4).putInt(MAGIC);
+        header.flip();
+        writeFully(header);
+        writerSize = 4;
+    }
+
+    private int nextSegmentNumber() {
+        if (segments.isEmpty()) {
+            return 1;
+        }
+        final String name = segments.get(segments.size() - 1).getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())) + 1;
+    }
+
+    private void write(final byte[] payload) throws IOException {
+        final ByteBuffer record = ByteBuffer.allocate(8 + payload.length);
+        record.putInt(payload.length).putInt(checksum(payload)).put(payload);
+        record.flip();
+        writeFully(record);
+        writerSize += record.capacity();
+    }
+
+    private void writeFully(final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            writer.write(buffer);
+        }
+    }
+
+    private static byte[] encode(final String path, final long lastModified, final Document document) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(bytes);
+        output.writeByte(PUT);
+        writeString(output, path);
+        output.writeLong(lastModified);
+        writeAttributes(output, document);
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    // 같은 해시로 기록된 마지막 문서와 경로 외의 속성이 같다면 LINK, 아니면 CONTENT 레코드
+    private byte[] encode(final String path, final long lastModified, final long contentHash,
+                          final Document document) throws IOException {
+        final boolean link = sameContent(contents.get(contentHash), document);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(bytes);
+        output.writeByte(link ? LINK : CONTENT);
+        writeString(output, path);
+        output.writeLong(lastModified);
+        output.writeLong(contentHash);
+        if (!link) {
+            writeAttributes(output, document);
+            contents.put(contentHash, document);
+        }
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeAttributes(final DataOutputStream output, final Document document) throws IOException {
+        final Map<String, String> attributes = document.getAttributes();
+        output.writeInt(attributes.size());
+        for (final Map.Entry<String, String> attribute : attributes.entrySet()) {
+            writeString(output, attribute.getKey());
+            writeString(output, attribute.getValue());
+        }
+    }
+
+    private static boolean sameContent(final Document recorded, final Document document) {
+        if (recorded == null) {
+            return false;
+        }
+        final Map<String, String> attributes = new HashMap<>(document.getAttributes());
+        attributes.put(PATH, recorded.getAttribute(PATH));
+        return attributes.equals(recorded.getAttributes());
+    }
+
+    private static byte[] encodeDelete(final String path) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(bytes);
+        output.writeByte(DELETE);
+        writeString(output, path);
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    private void decode(final ByteBuffer payload, final int length) throws IOException {
+        final byte kind = payload.get();
+        if (kind < PUT || kind > LINK) {
+            throw new IOException("Unknown record kind: " + kind);
+        }
+
+        final String path = readString(payload);
+        if (kind == DELETE) {
+            documents.remove(path);
+            deleted(path, length);
+            return;
+        }
+        final long lastModified = payload.getLong();
+        replaced(path, length);
+        if (kind == PUT) {
+            documents.put(path, new StoredDocument(path, lastModified, OptionalLong.empty(), readDocument(payload)));
+            return;
+        }
+
+        final long contentHash = payload.getLong();
+        final Document document;
+        if (kind == CONTENT) {
+            document = readDocument(payload);
+            contents.put(contentHash, document);
+        } else {
+            final Document recorded = contents.get(contentHash);
+            if (recorded == null) {
+                throw new IOException("No content recorded for link: " + path);
+            }
+            document = recorded.withAttribute(PATH, path);
+        }
+        documents.put(path, new StoredDocument(path, lastModified, OptionalLong.of(contentHash), document));
+    }
+
+    private static Document readDocument(final ByteBuffer payload) {
+        final int count = payload.getInt();
+        final Map<String, String> attributes = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            attributes.put(readString(payload), readString(payload));
+        }
+        return Document.restore(attributes);
+    }
+
+    // DataOutputStream.writeUTF 는 64KB 까지만 기록할 수 있으므로 길이와 UTF-8 바이트를 직접 기록한다.
+    private static void writeString(final DataOutputStream output, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int checksum(final byte[] payload) {
+        final CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
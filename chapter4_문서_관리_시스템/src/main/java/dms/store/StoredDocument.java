@@ -0,0 +1,39 @@
+package dms.store;
+
+import dms.document.Document;
+
+import java.util.OptionalLong;
+
+/**
+ * 저장소에 기록된 문서와 임포트 당시 원본 파일의 경로, 수정 시각, 내용 해시
+ */
+public class StoredDocument {
+    private final String path;
+    private final long lastModified;
+    private final OptionalLong contentHash;
+    private final Document document;
+
+    StoredDocument(final String path, final long lastModified, final OptionalLong contentHash, final Document document) {
+        this.path = path;
+        this.lastModified = lastModified;
+        this.contentHash = contentHash;
+        this.document = document;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    // 원본 파일 내용의 해시, 해시 없이 기록된 문서라면 비어 있다.
+    public OptionalLong getContentHash() {
+        return contentHash;
+    }
+
+    public Document getDocument() {
+        return document;
+    }
+}
@@ -0,0 +1,84 @@
+package dms;
+
+import dms.document.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static dms.constants.Attributes.PATIENT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DirectoryWatcherTest {
+    private static final String RESOURCES = "src" + File.separator + "test" + File.separator + "resources" + File.separator;
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @TempDir
+    Path directory;
+
+    private final DocumentManagementSystem system = new DocumentManagementSystem();
+    private DirectoryWatcher watcher;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+
+    @Test
+    void shouldImportCreatedFile() throws Exception {
+        watcher = system.watchDirectory(directory.toString());
+
+        Files.copy(Paths.get(RESOURCES + "patient.letter"), directory.resolve("patient.letter"));
+
+        awaitUntil(() -> system.search("patient:Joe").size() == 1);
+    }
+
+    @Test
+    void shouldReplaceModifiedFileAndRemoveDeletedFile() throws Exception {
+        final Path letter = directory.resolve("patient.letter");
+        Files.copy(Paths.get(RESOURCES + "patient.letter"), letter);
+        Files.copy(Paths.get(RESOURCES + "patient.report"), directory.resolve("patient.report"));
+        system.importDirectory(directory.toString());
+        watcher = system.watchDirectory(directory.toString());
+
+        Files.write(letter, Files.readAllLines(letter).stream()
+            .map(line -> line.replace("Joe Bloggs", "Jane Doe"))
+            .collect(Collectors.toList()));
+        awaitUntil(() -> system.search("patient:Jane").size() == 1);
+        assertThat(system.contents()).hasSize(2);
+
+        Files.delete(letter);
+        awaitUntil(() -> system.contents().size() == 1);
+        final List<Document> remaining = system.search("patient:Joe");
+        assertThat(remaining).hasSize(1);
+        assertThat(remaining.get(0).getAttribute(PATIENT)).isEqualTo("Joe Bloggs");
+    }
+
+    @Test
+    void shouldIgnoreFilesWithoutImporter() throws Exception {
+        watcher = system.watchDirectory(directory.toString());
+
+        Files.write(directory.resolve("notes.txt"), List.of("not a document"));
+        Files.copy(Paths.get(RESOURCES + "patient.invoice"), directory.resolve("patient.invoice"));
+
+        awaitUntil(() -> system.contents().size() == 1);
+        assertThat(watcher.getFailures()).isEmpty();
+    }
+
+    private static void awaitUntil(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis() < deadline).withFailMessage("Timed out waiting for watcher").isTrue();
+            Thread.sleep(10);
+        }
+    }
+}
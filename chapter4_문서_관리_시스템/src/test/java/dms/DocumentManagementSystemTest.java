@@ -1,13 +1,39 @@
 package dms;
 
 import dms.constants.Attributes;
+import dms.document.AsyncImporter;
 import dms.document.Document;
+import dms.document.ExtractionSpec;
+import dms.document.TextImporter;
 import dms.errors.UnknownFileTypeException;
+import dms.index.FacetRequest;
+import dms.index.Facets;
+import dms.index.QueryPlan;
+import dms.index.RangeCount;
+import dms.store.DocumentStore;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 import static dms.constants.Attributes.*;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -118,6 +144,361 @@ class DocumentManagementSystemTest {
         assertIsReport(documents.get(0));
     }
 
+    @Test
+    void shouldKeepSubstringSemanticsWhenSearchingIndexedAttributes() throws Exception {
+        system.importFile(LETTER);
+        system.importFile(REPORT);
+        system.importFile(INVOICE);
+
+        assertIsReport(onlyResult("body:iet Cok"));
+        assertTypeIs("LETTER", onlyResult("address:minster\nLon"));
+        assertTypeIs("INVOICE", onlyResult("type:VOICE"));
+        assertThat(system.search("patient:Bloggs")).hasSize(3);
+        assertThat(system.search("patient:Joe,body:Pepsi")).isEmpty();
+    }
+
+    @Test
+    void shouldFindSubstringsShorterAndLongerThanTrigrams() throws Exception {
+        system.importFile(LETTER);
+        system.importFile(REPORT);
+        system.importFile(XRAY);
+
+        assertThat(system.search("patient:Jo")).hasSize(2);
+        assertThat(system.search("path:xray")).hasSize(1);
+        assertIsReport(onlyResult("body:switch from drinking"));
+        assertThat(system.search("body:switch to drinking")).isEmpty();
+    }
+
+    @Test
+    void shouldPlanMostSelectiveClauseFirstAndSkipRestOnEmptyCandidates() throws Exception {
+        system.importFile(LETTER);
+        system.importFile(REPORT);
+        system.importFile(INVOICE);
+        system.importFile(XRAY);
+
+        final QueryPlan plan = system.explain("body:e,patient:Joe,type:IMAGE");
+        final List<QueryPlan.Step> steps = plan.getRoot().getChildren();
+
+        assertThat(steps.get(0).getLabel()).isEqualTo("type:IMAGE");
+        assertThat(steps.get(1).getLabel()).isEqualTo("patient:Joe");
+        assertThat(plan.getRoot().getCandidates()).isEqualTo(0);
+        assertThat(steps.get(2).getCandidates())
+            .withFailMessage("body clause should be skipped once candidates are empty")
+            .isEqualTo(-1);
+        assertThat(plan.getResultCount()).isEqualTo(0);
+        assertThat(plan.toString()).contains("  AND estimate=1", "    type:IMAGE estimate=1");
+    }
+
+    @Test
+    void shouldExplainSameResultsAsSearch() throws Exception {
+        system.importFile(LETTER);
+        system.importFile(REPORT);
+        system.importFile(INVOICE);
+
+        final QueryPlan plan = system.explain("patient:Joe,body:Diet Coke");
+
+        assertThat(plan.getResultCount()).isEqualTo(system.search("patient:Joe,body:Diet Coke").size());
+        assertThat(plan.getCandidateCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSearchWithBooleanOperatorsPhrasesAndPrefixes() throws Exception {
+        system.importFile(LETTER);
+        system.importFile(REPORT);
+        system.importFile(INVOICE);
+        system.importFile(XRAY);
+
+        assertThat(system.search("type:LETTER OR type:REPORT")).hasSize(2);
+        assertIsReport(onlyResult("patient:Joe AND NOT (type:LETTER OR type:INVOICE)"));
+        assertIsReport(onlyResult("body:\"Coke to Diet Coke.\""));
+        assertThat(system.search("patient:Jo*")).hasSize(3);
+        assertThat(system.search("patient:Bloggs*")).isEmpty();
+    }
+
+    @Test
+    void shouldSearchNumericAttributesByRange() throws Exception {
+        system.importFile(INVOICE);
+        system.importFile(XRAY);
+
+        assertTypeIs("INVOICE", onlyResult("amount>=100"));
+        assertThat(system.search("amount>100")).isEmpty();
+        assertTypeIs("IMAGE", onlyResult("width:[300 TO 400],height<200"));
+        assertThat(system.search("width:[321 TO *]")).isEmpty();
+    }
+
+    @Test
+    void shouldRankDocumentsByRelevance() throws Exception {
+        system.importFile(LETTER);
+        system.importFile(REPORT);
+        system.importFile(INVOICE);
+
+        final SearchPage page = system.search("body:Coke OR body:appointment", 0, 10);
+
+        assertThat(page.getTotalHits()).isEqualTo(2);
+        assertIsReport(page.getHits().get(0).getDocument());
+        assertTypeIs("LETTER", page.getHits().get(1).getDocument());
+        assertThat(page.getHits().get(0).getScore()).isGreaterThan(page.getHits().get(1).getScore());
+    }
+
+    @Test
+    void shouldPageThroughRankedResults() throws Exception {
+        system.importFile(LETTER);
+        system.importFile(REPORT);
+        system.importFile(INVOICE);
+
+        final SearchPage first = system.search("patient:Joe", 0, 2);
+        final SearchPage second = system.search("patient:Joe", 2, 2);
+
+        assertThat(first.getHits()).hasSize(2);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getHits()).hasSize(1);
+        assertThat(second.hasNext()).isFalse();
+        assertTypeIs("INVOICE", second.getHits().get(0).getDocument());
+    }
+
+    @Test
+    void shouldCountFacetsOfAllMatchingDocuments() throws Exception {
+        system.importDirectory(RESOURCES);
+        final FacetRequest request = FacetRequest.builder()
+            .values(TYPE)
+            .values(PATIENT)
+            .ranges(AMOUNT, 50, 500)
+            .build();
+
+        // 페이지에 들지 않은 문서도 facet 에는 포함된다.
+        final SearchPage page = system.search("patient:Joe", 0, 0, request);
+        final Facets facets = page.getFacets();
+
+        assertThat(page.getHits()).isEmpty();
+        assertThat(facets.getValueCounts(TYPE)).containsEntry("LETTER", 1).containsEntry("REPORT", 1)
+            .containsEntry("INVOICE", 1).doesNotContainKey("IMAGE");
+        assertThat(facets.getValueCounts(PATIENT)).containsEntry(JOE_BLOGGS, 3);
+        assertThat(facets.getRangeCounts(AMOUNT).stream().map(RangeCount::getCount).collect(Collectors.toList()))
+            .containsExactly(0, 1, 0);
+        assertThat(system.search("patient:Joe", 0, 10).getFacets().getValueCounts(TYPE)).isEmpty();
+    }
+
+    @Test
+    void shouldReuseCachedResultsUntilMatchingDocumentIsImported(@TempDir final Path directory) throws Exception {
+        final String query = "type:INVOICE,patient:Joe";
+        system.importFile(LETTER);
+        system.importFile(INVOICE);
+
+        assertThat(system.search(query)).hasSize(1);
+        assertThat(system.search("patient:\"Joe\" AND type:INVOICE")).hasSize(1);
+        assertThat(system.getResultCacheStats().getHits()).isEqualTo(1);
+
+        // 쿼리와 일치하지 않는 문서는 캐시된 결과를 버리지 않는다.
+        system.importFile(REPORT);
+        assertThat(system.search(query)).hasSize(1);
+        assertThat(system.getResultCacheStats().getHits()).isEqualTo(2);
+        assertThat(system.getResultCacheStats().getInvalidations()).isEqualTo(0);
+
+        final Path copy = Files.copy(Paths.get(INVOICE), directory.resolve("copy.invoice"));
+        system.importFile(copy.toString());
+        assertThat(system.search(query)).hasSize(2);
+        assertThat(system.getResultCacheStats().getInvalidations()).isEqualTo(1);
+
+        system.remove(copy.toString());
+        assertThat(system.search(query)).hasSize(1);
+        assertThat(system.getResultCacheStats().getInvalidations()).isEqualTo(2);
+        assertThat(system.getQueryCacheStats().getHits()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldLoadStoredDocumentsOnRestartWithoutReimporting(@TempDir final Path storeDirectory) throws Exception {
+        try (DocumentManagementSystem first = new DocumentManagementSystem(storeDirectory)) {
+            first.importFile(LETTER);
+            first.importFile(XRAY);
+        }
+
+        try (DocumentManagementSystem restarted = new DocumentManagementSystem(storeDirectory)) {
+            restarted.importFile(LETTER);
+
+            assertThat(restarted.contents()).hasSize(2);
+            assertThat(restarted.search("type:IMAGE,width>=320")).hasSize(1);
+            assertAttributeEquals(restarted.search("patient:Joe").get(0), PATH, LETTER);
+        }
+    }
+
+    @Test
+    void shouldReplaceDocumentWhenSamePathIsImportedAgain(@TempDir final Path directory) throws Exception {
+        final Path letter = directory.resolve("patient.letter");
+        Files.copy(Paths.get(LETTER), letter);
+        system.importFile(letter.toString());
+
+        Files.write(letter, Files.readAllLines(Paths.get(LETTER)).stream()
+            .map(line -> line.replace(JOE_BLOGGS, "Jane Doe"))
+            .collect(Collectors.toList()));
+        system.importFile(letter.toString());
+
+        assertAttributeEquals(onlyDocument(), PATIENT, "Jane Doe");
+        assertThat(system.search("patient:Joe")).isEmpty();
+        assertThat(system.search("patient:Jane", 0, 10).getTotalHits()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReturnExistingDocumentWhenSameContentIsImportedAgain() throws Exception {
+        final Document first = system.importFile(LETTER);
+        final Document second = system.importFile(LETTER);
+
+        assertThat(second).isSameAs(first);
+        assertThat(system.contents()).hasSize(1);
+    }
+
+    @Test
+    void shouldReuseImportedAttributesForCopiesOfSameContent(@TempDir final Path directory) throws Exception {
+        final Path copy = Files.copy(Paths.get(LETTER), directory.resolve("copy.letter"));
+
+        system.importFile(LETTER);
+        final Document copied = system.importFile(copy.toString());
+
+        assertAttributeEquals(copied, PATH, copy.toString());
+        assertAttributeEquals(copied, PATIENT, JOE_BLOGGS);
+        assertThat(system.search("patient:Joe")).hasSize(2);
+    }
+
+    @Test
+    void shouldRemoveDocumentByPath(@TempDir final Path storeDirectory) throws Exception {
+        try (DocumentManagementSystem first = new DocumentManagementSystem(storeDirectory)) {
+            first.importFile(LETTER);
+            first.importFile(REPORT);
+
+            assertThat(first.remove(LETTER)).isTrue();
+            assertThat(first.remove(LETTER)).isFalse();
+            assertThat(first.search("patient:Joe")).hasSize(1);
+        }
+
+        try (DocumentManagementSystem restarted = new DocumentManagementSystem(storeDirectory)) {
+            assertIsReport(restarted.contents().get(0));
+            assertThat(restarted.contents()).hasSize(1);
+        }
+    }
+
+    @Test
+    void shouldLeaveRemovedDocumentsOutOfRelevanceStatistics() throws Exception {
+        final DocumentManagementSystem fresh = new DocumentManagementSystem();
+        fresh.importFile(REPORT);
+        system.importFile(LETTER);
+        system.importFile(REPORT);
+        system.importFile(INVOICE);
+
+        system.remove(LETTER);
+        system.remove(INVOICE);
+
+        final String query = "body:Coke OR body:appointment";
+        assertThat(system.search(query, 0, 10).getHits().get(0).getScore())
+            .isEqualTo(fresh.search(query, 0, 10).getHits().get(0).getScore());
+    }
+
+    @Test
+    void shouldCompactDocumentNumbersLeftByReplacedDocuments() throws Exception {
+        system.importFile(REPORT);
+        for (int i = 0; i < DocumentManagementSystem.COMPACT_MIN_TOMBSTONES * 3; i++) {
+            system.remove(LETTER);
+            system.importFile(LETTER);
+        }
+
+        assertThat(system.ordinalCount()).isLessThan(DocumentManagementSystem.COMPACT_MIN_TOMBSTONES * 2 + 3);
+        assertThat(system.search("patient:Joe")).hasSize(2);
+        assertTypeIs("LETTER", system.search("body:appointment", 0, 10).getHits().get(0).getDocument());
+
+        // 다시 매긴 번호로도 올바른 문서가 제거된다.
+        assertThat(system.remove(REPORT)).isTrue();
+        assertThat(system.search("type:REPORT")).isEmpty();
+        assertTypeIs("LETTER", onlyDocument());
+    }
+
+    @Test
+    void shouldSearchConsistentlyWhileDocumentNumbersAreCompacted() throws Exception {
+        system.importFile(REPORT);
+        final AtomicBoolean churning = new AtomicBoolean(true);
+        final AtomicReference<String> inconsistency = new AtomicReference<>();
+        final Thread searcher = new Thread(() -> {
+            while (churning.get() && inconsistency.get() == null) {
+                final List<Document> reports = system.search("type:REPORT");
+                if (reports.size() != 1 || !"REPORT".equals(reports.get(0).getAttribute(TYPE))) {
+                    inconsistency.set("reports " + reports);
+                }
+            }
+        });
+        searcher.start();
+
+        try {
+            for (int i = 0; i < DocumentManagementSystem.COMPACT_MIN_TOMBSTONES * 3; i++) {
+                system.remove(LETTER);
+                system.importFile(LETTER);
+            }
+        } finally {
+            churning.set(false);
+            searcher.join();
+        }
+
+        assertThat(inconsistency.get()).isNull();
+        assertThat(system.ordinalCount()).isLessThan(DocumentManagementSystem.COMPACT_MIN_TOMBSTONES * 2 + 3);
+    }
+
+    @Test
+    void shouldKeepDocumentNumbersConsistentWhenStoreFailsToFlush(@TempDir final Path directory) throws Exception {
+        final AtomicBoolean failing = new AtomicBoolean();
+        final Path storeDirectory = Files.createDirectories(directory.resolve("store"));
+        final DocumentStore store = new DocumentStore(storeDirectory) {
+            @Override
+            public synchronized void flush() throws IOException {
+                if (failing.get()) {
+                    throw new IOException("disk full");
+                }
+                super.flush();
+            }
+        };
+        final Path letter = Files.copy(Paths.get(LETTER), directory.resolve("patient.letter"));
+        try (DocumentManagementSystem failingSystem = new DocumentManagementSystem(store)) {
+            failingSystem.importFile(letter.toString());
+            failingSystem.importFile(REPORT);
+
+            failing.set(true);
+            Files.write(letter, Files.readAllLines(Paths.get(LETTER)).stream()
+                .map(line -> line.replace(JOE_BLOGGS, "Jane Doe"))
+                .collect(Collectors.toList()));
+            assertThat(letter.toFile().setLastModified(letter.toFile().lastModified() + 10_000)).isTrue();
+            final ImportResult result = failingSystem.importFiles(List.of(letter.toString(), INVOICE));
+            assertThat(result.getImported()).isEmpty();
+            assertThat(result.getFailures()).hasSize(2);
+            assertThat(result.getFailures().get(letter.toString())).isInstanceOf(IOException.class);
+            assertThat(result.getFailures().get(INVOICE)).isInstanceOf(IOException.class);
+            assertThrows(IOException.class, () -> failingSystem.remove(REPORT));
+
+            // 실패한 변경은 공개되지 않고, 이후의 제거와 임포트는 올바른 문서에 적용된다.
+            failing.set(false);
+            assertThat(failingSystem.contents()).hasSize(2);
+            assertThat(failingSystem.search("patient:Jane")).isEmpty();
+            assertThat(failingSystem.remove(letter.toString())).isTrue();
+            failingSystem.importFile(INVOICE);
+
+            assertThat(failingSystem.search("type:LETTER")).isEmpty();
+            assertThat(failingSystem.contents()).hasSize(2);
+            assertIsReport(failingSystem.search("type:REPORT").get(0));
+            assertTypeIs("INVOICE", failingSystem.search("type:INVOICE").get(0));
+        }
+    }
+
+    @Test
+    void shouldImportNewTextTypeFromExtractionSpec(@TempDir final Path directory) throws Exception {
+        system.registerImporter("prescription", new TextImporter(ExtractionSpec.builder()
+            .prefix("Patient: ", PATIENT)
+            .block(BODY, 2, String::isBlank)
+            .constant(TYPE, "PRESCRIPTION")
+            .build()));
+        final Path prescription = Files.write(directory.resolve("joe.prescription"),
+            Arrays.asList("Patient: Joe Bloggs", "", "Fluoride toothpaste", "twice a day", "", "Dr Avaj"));
+
+        system.importFile(prescription.toString());
+
+        final Document document = onlyResult("type:PRESCRIPTION,body:twice");
+        assertAttributeEquals(document, PATIENT, JOE_BLOGGS);
+        assertAttributeEquals(document, BODY, "Fluoride toothpaste\ntwice a day");
+    }
+
     /**
      * 오류 상황 테스트
      *
@@ -135,6 +516,154 @@ class DocumentManagementSystemTest {
         assertThrows(UnknownFileTypeException.class, () -> system.importFile(RESOURCES + "unknown.txt"));
     }
 
+    @Test
+    void shouldImportFilesInParallel() throws Exception {
+        final ImportResult result = system.importFiles(Arrays.asList(LETTER, REPORT, XRAY, INVOICE));
+
+        assertThat(result.hasFailures()).isFalse();
+        assertThat(result.getImported()).hasSize(4);
+        assertThat(system.contents()).hasSize(4);
+        assertIsReport(system.search("patient:Joe,body:Diet Coke").get(0));
+    }
+
+    @Test
+    void shouldCollectFailuresPerFileWhenImportingFiles() throws Exception {
+        final String missing = "gobbledygook.txt";
+        final String unknown = RESOURCES + "unknown.txt";
+
+        final ImportResult result = system.importFiles(Arrays.asList(LETTER, missing, unknown));
+
+        assertThat(result.getImported()).hasSize(1);
+        assertThat(result.getFailures().get(missing)).isInstanceOf(FileNotFoundException.class);
+        assertThat(result.getFailures().get(unknown)).isInstanceOf(UnknownFileTypeException.class);
+        assertAttributeEquals(onlyDocument(), PATH, LETTER);
+    }
+
+    @Test
+    void shouldNotStarveOtherImportersWhileSlowImporterIsBusy(@TempDir final Path directory) throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        system.registerImporter(new AsyncImporter() {
+            @Override
+            public Set<String> extensions() {
+                return Set.of("scan");
+            }
+
+            @Override
+            public CompletableFuture<Document> importFile(final File file, final Executor executor) {
+                return CompletableFuture.supplyAsync(() -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return Document.restore(Map.of(PATH, file.getPath(), TYPE, "SCAN"));
+                }, executor);
+            }
+        });
+        final List<String> scans = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            scans.add(Files.write(directory.resolve(i + ".scan"), new byte[]{(byte) i}).toString());
+        }
+
+        final CompletableFuture<ImportResult> slowImport = CompletableFuture.supplyAsync(() -> system.importFiles(scans));
+        try {
+            // 느린 임포터의 스레드가 모두 막혀 있어도 다른 임포터는 자기 스레드에서 처리된다.
+            final ImportResult letter = CompletableFuture.supplyAsync(() -> system.importFiles(List.of(LETTER)))
+                .get(10, TimeUnit.SECONDS);
+            assertThat(letter.getImported()).hasSize(1);
+        } finally {
+            release.countDown();
+        }
+
+        assertThat(slowImport.get(10, TimeUnit.SECONDS).getImported()).hasSize(64);
+        assertThat(system.search("type:SCAN")).hasSize(64);
+    }
+
+    @Test
+    void shouldBoundFilesInFlightPerImporterWithoutBlockingOthers(@TempDir final Path directory) throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger started = new AtomicInteger();
+        system.registerImporter(new AsyncImporter() {
+            @Override
+            public Set<String> extensions() {
+                return Set.of("scan");
+            }
+
+            @Override
+            public CompletableFuture<Document> importFile(final File file, final Executor executor) {
+                started.incrementAndGet();
+                return CompletableFuture.supplyAsync(() -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return Document.restore(Map.of(PATH, file.getPath(), TYPE, "SCAN"));
+                }, executor);
+            }
+        });
+        // 느린 임포터가 받을 수 있는 파일 수(추출 스레드 + 대기열)보다 많은 파일
+        final int count = Runtime.getRuntime().availableProcessors() + 200;
+        final List<String> scans = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            scans.add(Files.write(directory.resolve(i + ".scan"), ByteBuffer.allocate(4).putInt(i).array()).toString());
+        }
+
+        final CompletableFuture<ImportResult> slowImport = CompletableFuture.supplyAsync(() -> system.importFiles(scans));
+        try {
+            final ImportResult letter = CompletableFuture.supplyAsync(() -> system.importFiles(List.of(LETTER)))
+                .get(10, TimeUnit.SECONDS);
+            assertThat(letter.getImported()).hasSize(1);
+            assertThat(started.get()).isLessThan(count);
+        } finally {
+            release.countDown();
+        }
+
+        assertThat(slowImport.get(10, TimeUnit.SECONDS).getImported()).hasSize(count);
+    }
+
+    @Test
+    void shouldImportDirectory() throws Exception {
+        final ImportResult result = system.importDirectory(RESOURCES);
+
+        assertThat(result.getImported()).hasSize(4);
+        assertThat(result.getFailures()).containsKey(RESOURCES + "unknown.txt");
+        assertThat(system.contents()).hasSize(4);
+    }
+
+    @Test
+    void shouldSearchConsistentlyWhileImporting(@TempDir final Path directory) throws Exception {
+        final int copies = 200;
+        final AtomicBoolean importing = new AtomicBoolean(true);
+        final AtomicReference<String> inconsistency = new AtomicReference<>();
+        final Thread searcher = new Thread(() -> {
+            int previous = 0;
+            while (importing.get() && inconsistency.get() == null) {
+                // 검색은 임포트 도중에도 한 시점의 문서 목록만 본다.
+                final SearchPage page = system.search("patient:Joe Bloggs", 0, copies);
+                final int found = system.search("patient:Joe Bloggs").size();
+                if (page.getTotalHits() != page.getHits().size() || found < page.getTotalHits() || found < previous) {
+                    inconsistency.set("page " + page.getTotalHits() + ", search " + found + ", previous " + previous);
+                }
+                previous = found;
+            }
+        });
+        searcher.start();
+
+        try {
+            for (int i = 0; i < copies; i++) {
+                final Path copy = Files.copy(Paths.get(LETTER), directory.resolve(i + ".letter"));
+                system.importFile(copy.toString());
+            }
+        } finally {
+            importing.set(false);
+            searcher.join();
+        }
+
+        assertThat(inconsistency.get()).isNull();
+        assertThat(system.search("patient:Joe Bloggs")).hasSize(copies);
+    }
+
     /**
      * 중복 코드 제거
      *
@@ -165,6 +694,14 @@ class DocumentManagementSystemTest {
     }
 
 
+    private Document onlyResult(final String query) {
+        final List<Document> documents = system.search(query);
+        assertThat(documents.size())
+            .withFailMessage("Query " + query + " should match only 1 document but matched " + documents.size())
+            .isEqualTo(1);
+        return documents.get(0);
+    }
+
     /**
      * 좋은 진단
      *
@@ -0,0 +1,70 @@
+package dms;
+
+import dms.document.AsyncImporter;
+import dms.document.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static dms.constants.Attributes.PATH;
+import static dms.constants.Attributes.TYPE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ImportPipelineTest {
+
+    @Test
+    void shouldFailQueuedFilesInsteadOfHangingWhenClosed(@TempDir final Path directory) throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AsyncImporter slowImporter = new AsyncImporter() {
+            @Override
+            public Set<String> extensions() {
+                return Set.of("scan");
+            }
+
+            @Override
+            public CompletableFuture<Document> importFile(final File file, final Executor executor) {
+                return CompletableFuture.supplyAsync(() -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return Document.restore(Map.of(PATH, file.getPath(), TYPE, "SCAN"));
+                }, executor);
+            }
+        };
+        final File running = Files.write(directory.resolve("1.scan"), new byte[]{1}).toFile();
+        final File queued = Files.write(directory.resolve("2.scan"), new byte[]{2}).toFile();
+        // 추출 스레드 하나와 대기열 하나
+        final ImportPipeline pipeline = new ImportPipeline(1, 4, 1, 1, new ImportCache(16));
+
+        try {
+            final CompletableFuture<ImportedFile> first = pipeline.submit(running, slowImporter);
+            assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+            final CompletableFuture<ImportedFile> second = pipeline.submit(queued, slowImporter);
+
+            pipeline.close(100, TimeUnit.MILLISECONDS);
+
+            final ExecutionException failure = assertThrows(ExecutionException.class, () -> second.get(10, TimeUnit.SECONDS));
+            assertThat(failure.getCause()).isInstanceOf(RejectedExecutionException.class);
+            assertThrows(RejectedExecutionException.class, () -> pipeline.submit(queued, slowImporter));
+            first.handle((imported, e) -> null).get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package dms;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static dms.constants.Attributes.AMOUNT;
+import static dms.constants.Attributes.BODY;
+import static dms.constants.Attributes.PATIENT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextFileTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldStopReadingOnceRequestedLinesAreFound() throws Exception {
+        // 금액 줄 뒤의 긴 본문 끝에는 UTF-8 로 읽을 수 없는 내용이 있으므로 끝까지 읽으면 실패한다.
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        content.write("Dear Joe Bloggs\n\nAmount: $100\n".getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < 10_000; i++) {
+            content.write("treatment details\n".getBytes(StandardCharsets.UTF_8));
+        }
+        content.write(new byte[]{(byte) 0xC3, (byte) 0x28, '\n'});
+        final Path invoice = Files.write(directory.resolve("large.invoice"), content.toByteArray());
+
+        try (TextFile textFile = new TextFile(invoice.toFile())) {
+            textFile.addLineSuffix("Dear ", PATIENT);
+            textFile.addLineSuffix("Amount: ", AMOUNT);
+
+            assertThat(textFile.getAttributes().get(PATIENT)).isEqualTo("Joe Bloggs");
+            assertThat(textFile.getAttributes().get(AMOUNT)).isEqualTo("$100");
+        }
+    }
+
+    @Test
+    void shouldFindEarlierLinesAfterReadingAhead() throws Exception {
+        final Path report = Files.write(directory.resolve("patient.report"),
+            "Patient: Joe Bloggs\n\nfirst\nsecond\n".getBytes(StandardCharsets.UTF_8));
+
+        try (TextFile textFile = new TextFile(report.toFile())) {
+            final int end = textFile.addLines(2, line -> false, BODY);
+            textFile.addLineSuffix("Patient: ", PATIENT);
+
+            assertThat(end).isEqualTo(4);
+            assertThat(textFile.getAttributes().get(BODY)).isEqualTo("first\nsecond");
+            assertThat(textFile.getAttributes().get(PATIENT)).isEqualTo("Joe Bloggs");
+        }
+    }
+}
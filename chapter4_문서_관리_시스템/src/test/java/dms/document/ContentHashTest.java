@@ -0,0 +1,39 @@
+package dms.document;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentHashTest {
+    @Test
+    void shouldMatchXxHash64ReferenceValues() {
+        assertThat(hash("")).isEqualTo(0xEF46DB3751D8E999L);
+        assertThat(hash("a")).isEqualTo(0xD24EC4F1A98C6E5BL);
+        assertThat(hash("abc")).isEqualTo(0x44BC2CF5AD770999L);
+        assertThat(hash("Nobody inspects the spammish repetition")).isEqualTo(0xFBCEA83C8A378BF1L);
+    }
+
+    @Test
+    void shouldHashTheSameRegardlessOfChunking() {
+        final byte[] bytes = new byte[1000];
+        new Random(42).nextBytes(bytes);
+
+        final ContentHash hash = new ContentHash();
+        final Random chunks = new Random(7);
+        int offset = 0;
+        while (offset < bytes.length) {
+            final int count = Math.min(bytes.length - offset, chunks.nextInt(50));
+            hash.update(bytes, offset, count);
+            offset += count;
+        }
+
+        assertThat(hash.digest()).isEqualTo(ContentHash.of(bytes));
+    }
+
+    private static long hash(final String value) {
+        return ContentHash.of(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
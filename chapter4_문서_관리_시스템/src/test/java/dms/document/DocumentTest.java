@@ -0,0 +1,55 @@
+package dms.document;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static dms.constants.Attributes.HEIGHT;
+import static dms.constants.Attributes.PATH;
+import static dms.constants.Attributes.PATIENT;
+import static dms.constants.Attributes.TYPE;
+import static dms.constants.Attributes.WIDTH;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DocumentTest {
+    @Test
+    void shouldKeepEveryAttributeAsGiven() {
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put(PATH, "xray.jpg");
+        attributes.put(WIDTH, "320");
+        attributes.put(HEIGHT, "0179");
+        attributes.put("scanner", "X-1000");
+
+        final Document document = Document.restore(attributes);
+
+        assertThat(document.getAttribute(WIDTH)).isEqualTo("320");
+        assertThat(document.getAttribute(HEIGHT)).isEqualTo("0179");
+        assertThat(document.getAttribute("scanner")).isEqualTo("X-1000");
+        assertThat(document.getAttribute(PATIENT)).isNull();
+        assertThat(document.getAttributes()).isEqualTo(attributes);
+    }
+
+    @Test
+    void shouldShareRepeatedTypeValuesButNotPatientNames() {
+        final Document first = Document.restore(Map.of(TYPE, new String("LETTER"), PATIENT, new String("Joe Bloggs")));
+        final Document second = Document.restore(Map.of(TYPE, new String("LETTER"), PATIENT, new String("Joe Bloggs")));
+
+        assertThat(second.getAttribute(TYPE)).isSameAs(first.getAttribute(TYPE));
+        assertThat(second.getAttribute(PATIENT)).isNotSameAs(first.getAttribute(PATIENT));
+        assertThat(second.getAttribute(PATIENT)).isEqualTo(first.getAttribute(PATIENT));
+    }
+
+    @Test
+    void shouldReplaceOnlyOneAttributeInCopy() {
+        final Document original = Document.restore(Map.of(PATH, "a.jpg", WIDTH, "0800", HEIGHT, "600"));
+
+        final Document copy = original.withAttribute(PATH, "b.jpg").withAttribute(WIDTH, "1024");
+
+        assertThat(copy.getAttribute(PATH)).isEqualTo("b.jpg");
+        assertThat(copy.getAttribute(WIDTH)).isEqualTo("1024");
+        assertThat(copy.getAttribute(HEIGHT)).isEqualTo("600");
+        assertThat(original.getAttribute(PATH)).isEqualTo("a.jpg");
+        assertThat(original.getAttribute(WIDTH)).isEqualTo("0800");
+    }
+}
@@ -0,0 +1,85 @@
+package dms.document;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static dms.constants.Attributes.ADDRESS;
+import static dms.constants.Attributes.AMOUNT;
+import static dms.constants.Attributes.BODY;
+import static dms.constants.Attributes.PATIENT;
+import static dms.constants.Attributes.TYPE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExtractionSpecTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldExtractPrefixesInAnyOrderInOnePass() throws Exception {
+        final ExtractionSpec spec = ExtractionSpec.builder()
+            .prefix("Amount: ", AMOUNT)
+            .prefix("Dear ", PATIENT)
+            .constant(TYPE, "INVOICE")
+            .build();
+
+        final Document document = spec.extract(write("a.invoice", "Dear Joe\n\nAmount: $100\nAmount: $200\n"));
+
+        assertThat(document.getAttribute(PATIENT)).isEqualTo("Joe");
+        assertThat(document.getAttribute(AMOUNT)).isEqualTo("$100");
+        assertThat(document.getAttribute(TYPE)).isEqualTo("INVOICE");
+    }
+
+    @Test
+    void shouldExtractOverlappingAndChainedBlocks() throws Exception {
+        final ExtractionSpec spec = ExtractionSpec.builder()
+            .block(ADDRESS, 1, String::isBlank)
+            .nextBlock(BODY, line -> line.startsWith("regards,"))
+            .block(PATIENT, 0, line -> line.equals("street"))
+            .build();
+
+        final Document document = spec.extract(write("a.letter", "Dear Joe\nstreet\ncity\n\nbody\nregards,\nDr\n"));
+
+        assertThat(document.getAttribute(ADDRESS)).isEqualTo("street\ncity");
+        assertThat(document.getAttribute(BODY)).isEqualTo("body");
+        assertThat(document.getAttribute(PATIENT)).isEqualTo("Dear Joe");
+    }
+
+    @Test
+    void shouldLeaveBlocksEmptyWhenFileEndsFirst() throws Exception {
+        final ExtractionSpec spec = ExtractionSpec.builder()
+            .block(ADDRESS, 1, String::isBlank)
+            .nextBlock(BODY, line -> false)
+            .build();
+
+        final Document document = spec.extract(write("short.letter", "Dear Joe\nstreet\n"));
+
+        assertThat(document.getAttribute(ADDRESS)).isEqualTo("street");
+        assertThat(document.getAttribute(BODY)).isEqualTo("");
+    }
+
+    @Test
+    void shouldStopReadingOnceAllAttributesAreExtracted() throws Exception {
+        // 금액 줄 뒤의 긴 본문 끝에는 UTF-8 로 읽을 수 없는 내용이 있으므로 끝까지 읽으면 실패한다.
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        content.write("Dear Joe Bloggs\n\nAmount: $100\n".getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < 10_000; i++) {
+            content.write("treatment details\n".getBytes(StandardCharsets.UTF_8));
+        }
+        content.write(new byte[]{(byte) 0xC3, (byte) 0x28, '\n'});
+        final Path invoice = Files.write(directory.resolve("large.invoice"), content.toByteArray());
+
+        final Document document = new InvoiceImporter().importFile(invoice.toFile());
+
+        assertThat(document.getAttribute(AMOUNT)).isEqualTo("$100");
+    }
+
+    private File write(final String name, final String content) throws Exception {
+        return Files.write(directory.resolve(name), content.getBytes(StandardCharsets.UTF_8)).toFile();
+    }
+}
@@ -0,0 +1,103 @@
+package dms.document;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static dms.constants.Attributes.CAPTURED;
+import static dms.constants.Attributes.HEIGHT;
+import static dms.constants.Attributes.ORIENTATION;
+import static dms.constants.Attributes.TYPE;
+import static dms.constants.Attributes.WIDTH;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageImporterTest {
+    @TempDir
+    Path directory;
+
+    private final ImageImporter importer = new ImageImporter();
+
+    @Test
+    void shouldReadDimensionsAndExifFromJpegHeader() throws Exception {
+        final byte[] jpeg = withExif(encode("jpg", 40, 30), 6, "2017:01:05 10:30:00");
+        final Path file = Files.write(directory.resolve("photo.jpg"), jpeg);
+
+        final Document document = importer.importFile(file.toFile());
+
+        assertThat(document.getAttribute(WIDTH)).isEqualTo("40");
+        assertThat(document.getAttribute(HEIGHT)).isEqualTo("30");
+        assertThat(document.getAttribute(ORIENTATION)).isEqualTo("6");
+        assertThat(document.getAttribute(CAPTURED)).isEqualTo("2017-01-05T10:30:00");
+        assertThat(document.getAttribute(TYPE)).isEqualTo("IMAGE");
+    }
+
+    @Test
+    void shouldNotDecodePixelData() throws Exception {
+        // 스캔 데이터(SOS) 도중을 잘라내면 전체 디코딩은 실패하지만 헤더는 읽을 수 있다.
+        final byte[] jpeg = encode("jpg", 64, 48);
+        final Path file = Files.write(directory.resolve("truncated.jpg"), Arrays.copyOf(jpeg, startOfScan(jpeg) + 32));
+
+        final Document document = importer.importFile(file.toFile());
+
+        assertThat(document.getAttribute(WIDTH)).isEqualTo("64");
+        assertThat(document.getAttribute(HEIGHT)).isEqualTo("48");
+        assertThat(document.getAttribute(ORIENTATION)).isNull();
+    }
+
+    @Test
+    void shouldReadPngAndGifDimensions() throws Exception {
+        final Path png = Files.write(directory.resolve("scan.png"), encode("png", 7, 5));
+        final Path gif = Files.write(directory.resolve("scan.gif"), encode("gif", 9, 3));
+
+        assertThat(importer.importFile(png.toFile()).getAttribute(WIDTH)).isEqualTo("7");
+        assertThat(importer.importFile(gif.toFile()).getAttribute(HEIGHT)).isEqualTo("3");
+    }
+
+    private static byte[] encode(final String format, final int width, final int height) throws Exception {
+        final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(image, format, bytes);
+        return bytes.toByteArray();
+    }
+
+    private static int startOfScan(final byte[] jpeg) {
+        for (int i = 0; i < jpeg.length - 1; i++) {
+            if ((jpeg[i] & 0xFF) == 0xFF && (jpeg[i + 1] & 0xFF) == 0xDA) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("No SOS marker");
+    }
+
+    // SOI 바로 뒤에 방향과 촬영 시각을 담은 EXIF(APP1) 세그먼트를 넣는다.
+    private static byte[] withExif(final byte[] jpeg, final int orientation, final String dateTimeOriginal) {
+        final byte[] date = (dateTimeOriginal + "\0").getBytes(StandardCharsets.US_ASCII);
+        final int exifIfd = 8 + 2 + 2 * 12 + 4;
+        final int dateOffset = exifIfd + 2 + 12 + 4;
+        final ByteBuffer tiff = ByteBuffer.allocate(dateOffset + date.length);
+        tiff.put((byte) 'M').put((byte) 'M').putShort((short) 42).putInt(8);
+        tiff.putShort((short) 2);
+        tiff.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+        tiff.putShort((short) 0x8769).putShort((short) 4).putInt(1).putInt(exifIfd);
+        tiff.putInt(0);
+        tiff.putShort((short) 1);
+        tiff.putShort((short) 0x9003).putShort((short) 2).putInt(date.length).putInt(dateOffset);
+        tiff.putInt(0);
+        tiff.put(date);
+
+        final ByteBuffer result = ByteBuffer.allocate(jpeg.length + 4 + 6 + tiff.capacity());
+        result.put(jpeg, 0, 2);
+        result.put((byte) 0xFF).put((byte) 0xE1).putShort((short) (2 + 6 + tiff.capacity()));
+        result.put(new byte[]{'E', 'x', 'i', 'f', 0, 0}).put(tiff.array());
+        result.put(jpeg, 2, jpeg.length - 2);
+        return result.array();
+    }
+}
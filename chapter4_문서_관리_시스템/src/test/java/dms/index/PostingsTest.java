@@ -0,0 +1,115 @@
+package dms.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PostingsTest {
+
+    @Test
+    void shouldReturnOrdinalsInAscendingOrderAcrossBlocks() throws Exception {
+        final Postings postings = postingsOf(0, 5, 300, 70_000, 1_000_000);
+
+        assertThat(ordinalsOf(postings)).containsExactly(0, 5, 300, 70_000, 1_000_000);
+        assertThat(postings.size()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldRejectOrdinalsOutOfOrder() throws Exception {
+        final Postings postings = postingsOf(10);
+
+        assertThrows(IllegalArgumentException.class, () -> postings.add(3));
+    }
+
+    @Test
+    void shouldIntersectSparseAndDensePostings() throws Exception {
+        final Postings dense = new Postings();
+        for (int ordinal = 0; ordinal < 10_000; ordinal++) {
+            dense.add(ordinal);
+        }
+        final Postings sparse = postingsOf(3, 4_000, 9_999, 20_000);
+        final Postings everyThird = new Postings();
+        for (int ordinal = 0; ordinal < 30_000; ordinal += 3) {
+            everyThird.add(ordinal);
+        }
+
+        assertThat(ordinalsOf(dense.intersect(sparse))).containsExactly(3, 4_000, 9_999);
+        assertThat(ordinalsOf(sparse.intersect(everyThird))).containsExactly(3, 9_999);
+        assertThat(dense.intersect(everyThird).size()).isEqualTo(3_334);
+    }
+
+    @Test
+    void shouldCountOrdinalsInBitmapWithoutIntersecting() throws Exception {
+        final Postings dense = new Postings();
+        for (int ordinal = 0; ordinal < 10_000; ordinal++) {
+            dense.add(ordinal);
+        }
+        final Postings sparse = postingsOf(3, 4_000, 9_999, 20_000);
+        final long[] everyThird = new long[(10_000 >>> 6) + 1];
+        for (int ordinal = 0; ordinal < 10_000; ordinal += 3) {
+            everyThird[ordinal >>> 6] |= 1L << ordinal;
+        }
+
+        assertThat(dense.countIn(everyThird)).isEqualTo(3_334);
+        assertThat(sparse.countIn(everyThird)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldUnionWithoutDuplicates() throws Exception {
+        final Postings union = Postings.union(Arrays.asList(
+            postingsOf(1, 5, 9),
+            postingsOf(5, 6),
+            Postings.empty()
+        ));
+
+        assertThat(ordinalsOf(union)).containsExactly(1, 5, 6, 9);
+    }
+
+    @Test
+    void shouldAdvanceToFirstOrdinalAtLeastTarget() throws Exception {
+        final Postings postings = new Postings();
+        for (int ordinal = 0; ordinal < 100_000; ordinal += 7) {
+            postings.add(ordinal);
+        }
+
+        final Postings.PostingsIterator iterator = postings.iterator();
+        assertThat(iterator.advance(50_000)).isEqualTo(50_001);
+        assertThat(iterator.advance(50_001)).isEqualTo(50_001);
+        assertThat(iterator.nextOrdinal()).isEqualTo(50_008);
+        assertThat(iterator.advance(100_000)).isEqualTo(Postings.NO_MORE_ORDINALS);
+    }
+
+    @Test
+    void shouldStoreOrdinalsInFarLessMemoryThanAnIntArray() throws Exception {
+        final Postings dense = new Postings();
+        final Postings sparse = new Postings();
+        for (int ordinal = 0; ordinal < 1_000_000; ordinal++) {
+            dense.add(ordinal);
+            if (ordinal % 50 == 0) {
+                sparse.add(ordinal);
+            }
+        }
+
+        assertThat(dense.ramBytesUsed()).isLessThan(1_000_000 * 4 / 16);
+        assertThat(sparse.ramBytesUsed()).isLessThan(sparse.size() * 4 / 2);
+    }
+
+    private static Postings postingsOf(final int... ordinals) {
+        final Postings postings = new Postings();
+        for (final int ordinal : ordinals) {
+            postings.add(ordinal);
+        }
+        return postings;
+    }
+
+    private static List<Integer> ordinalsOf(final Postings postings) {
+        final List<Integer> ordinals = new ArrayList<>();
+        postings.forEach(ordinals::add);
+        return ordinals;
+    }
+}
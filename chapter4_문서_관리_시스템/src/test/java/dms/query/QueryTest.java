@@ -0,0 +1,83 @@
+package dms.query;
+
+import dms.errors.QuerySyntaxException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QueryTest {
+
+    @Test
+    void shouldParseLegacyCommaSeparatedClausesAsConjunction() throws Exception {
+        final Query query = Query.parse("patient:Joe,body:Diet Coke");
+
+        assertThat(query.toString()).isEqualTo("(patient:Joe AND body:Diet Coke)");
+    }
+
+    @Test
+    void shouldGiveAndPrecedenceOverOr() throws Exception {
+        final Query query = Query.parse("type:LETTER OR type:REPORT AND patient:Joe");
+
+        assertThat(query.toString()).isEqualTo("(type:LETTER OR (type:REPORT AND patient:Joe))");
+    }
+
+    @Test
+    void shouldParseNotAndParentheses() throws Exception {
+        final Query query = Query.parse("NOT (type:LETTER OR type:REPORT),patient:Jo*");
+
+        assertThat(query.toString()).isEqualTo("(NOT (type:LETTER OR type:REPORT) AND patient:Jo*)");
+    }
+
+    @Test
+    void shouldNormalizeQueriesWithSameResultsToSameKey() throws Exception {
+        final Query query = Query.parse("type:INVOICE,patient:Joe");
+
+        assertThat(Query.parse("patient:\"Joe\" AND type:INVOICE").normalized()).isEqualTo(query.normalized());
+        assertThat(Query.parse("patient:Joe,type:INVOICE*").normalized()).isNotEqualTo(query.normalized());
+        assertThat(Query.parse("patient:\"Joe AND type:INVOICE\"").normalized()).isNotEqualTo(query.normalized());
+    }
+
+    @Test
+    void shouldAllowSeparatorsInsideQuotedPhrases() throws Exception {
+        final Query query = Query.parse("body:\"Dear Joe, see: \\\"notes\\\"\"");
+
+        final TermNode term = (TermNode) query.root();
+        assertThat(term.getValue()).isEqualTo("Dear Joe, see: \"notes\"");
+        assertThat(term.isPrefix()).isFalse();
+    }
+
+    @Test
+    void shouldParseNumericRanges() throws Exception {
+        assertThat(Query.parse("amount>=500").toString()).isEqualTo("amount:[500 TO *]");
+        assertThat(Query.parse("width<800").toString()).isEqualTo("width:[* TO 800}");
+        assertThat(Query.parse("width:[800 TO 1920]").toString()).isEqualTo("width:[800 TO 1920]");
+    }
+
+    @Test
+    void shouldAllowWhitespaceAroundComparisonOperators() throws Exception {
+        assertThat(Query.parse("amount > 500").toString()).isEqualTo("amount:{500 TO *]");
+        assertThat(Query.parse("amount >500").toString()).isEqualTo("amount:{500 TO *]");
+        assertThat(Query.parse("width <= 800 AND type:IMAGE").toString())
+            .isEqualTo(Query.parse("width<=800 AND type:IMAGE").toString());
+    }
+
+    @Test
+    void shouldParseNumbersOutOfFormattedAttributeValues() throws Exception {
+        assertThat(RangeNode.parseNumber("$1,250.50")).isEqualTo(1250.5);
+        assertThat(Double.isNaN(RangeNode.parseNumber("n/a"))).isTrue();
+    }
+
+    @Test
+    void shouldRejectRangeOnTextAttribute() throws Exception {
+        assertThrows(QuerySyntaxException.class, () -> Query.parse("patient>=5"));
+    }
+
+    @Test
+    void shouldRejectMalformedQueries() throws Exception {
+        assertThrows(QuerySyntaxException.class, () -> Query.parse("patient"));
+        assertThrows(QuerySyntaxException.class, () -> Query.parse("(type:LETTER"));
+        assertThrows(QuerySyntaxException.class, () -> Query.parse("width:[1 TO"));
+        assertThrows(QuerySyntaxException.class, () -> Query.parse("body:\"unterminated"));
+    }
+}
@@ -0,0 +1,191 @@
+package dms.store;
+
+import dms.document.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static dms.constants.Attributes.BODY;
+import static dms.constants.Attributes.PATH;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DocumentStoreTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReadBackStoredDocumentsAfterReopen() throws Exception {
+        try (DocumentStore store = DocumentStore.open(directory)) {
+            store.append("a.letter", 1L, document("a.letter", "first"));
+            store.append("b.letter", 2L, document("b.letter", "second"));
+        }
+
+        try (DocumentStore store = DocumentStore.open(directory)) {
+            assertThat(paths(store)).containsExactly("a.letter", "b.letter");
+            assertThat(store.get("b.letter").getLastModified()).isEqualTo(2L);
+            assertThat(store.get("b.letter").getDocument().getAttribute(BODY)).isEqualTo("second");
+        }
+    }
+
+    @Test
+    void shouldKeepLatestRecordForSamePath() throws Exception {
+        try (DocumentStore store = DocumentStore.open(directory)) {
+            store.append("a.letter", 1L, document("a.letter", "old"));
+            store.append("a.letter", 5L, document("a.letter", "new"));
+        }
+
+        try (DocumentStore store = DocumentStore.open(directory)) {
+            assertThat(store.documents()).hasSize(1);
+            assertThat(store.get("a.letter").getDocument().getAttribute(BODY)).isEqualTo("new");
+        }
+    }
+
+    @Test
+    void shouldDropTornRecordAtEndOfLastSegment() throws Exception {
+        try (DocumentStore store = DocumentStore.open(directory)) {
+            store.append("a.letter", 1L, document("a.letter", "kept"));
+        }
+        final Path segment = Files.list(directory).findFirst().get();
+        Files.write(segment, new byte[]{0, 0, 1, 0, 42}, StandardOpenOption.APPEND);
+
+        try (DocumentStore store = DocumentStore.open(directory)) {
+            assertThat(paths(store)).containsExactly("a.letter");
+            store.append("b.letter", 2L, document("b.letter", "appended"));
+        }
+
+        try (DocumentStore store = DocumentStore.open(directory)) {
+            assertThat(paths(store)).containsExactly("a.letter", "b.letter");
+        }
+    }
+
+    @Test
+    void shouldReopenAfterCrashBeforeSegmentHeaderWasWritten() throws Exception {
+        try (DocumentStore store = DocumentStore.open(directory)) {
+            store.append("a.letter", 1L, document("a.letter", "first"));
+        }
+        Files.createFile(directory.resolve("segment-00000002.dms"));
+
+        try (DocumentStore store = DocumentStore.open(directory)) {
+            store.append("b.letter", 2L, document("b.letter", "second"));
+        }
+        try (DocumentStore store = DocumentStore.open(directory)) {
+            store.append("c.letter", 3L, document("c.letter", "third"));
+        }
+
+        try (DocumentStore store = DocumentStore.open(directory)) {
+            assertThat(paths(store)).containsExactly("a.letter", "b.letter", "c.letter");
+        }
+    }
+
+    @Test
+    void shouldForgetDeletedPathAfterReopenAndMerge() throws Exception {
+        try (DocumentStore store = DocumentStore.open(directory)) {
+            store.append("a.letter", 1L, document("a.letter", "deleted"));
+            store.append("b.letter", 2L, document("b.letter", "kept"));
+            store.delete("a.letter");
+        }
+
+        try (DocumentStore store = DocumentStore.open(directory)) {
+            assertThat(paths(store)).containsExactly("b.letter");
+            store.merge();
+        }
+
+        try (DocumentStore store = DocumentStore.open(directory)) {
+            assertThat(paths(store)).containsExactly("b.letter");
+        }
+    }
+
+    @Test
+    void shouldStoreIdenticalContentOnceAndRestoreEachPath() throws Exception {
+        final String body = String.join("", Collections.nCopies(1000, "same body "));
+        try (DocumentStore store = DocumentStore.open(directory)) {
+            store.append("a.letter", 1L, 42L, document("a.letter", body));
+        }
+        final long contentSize = Files.size(segment());
+        try (DocumentStore store = DocumentStore.open(directory)) {
+            store.append("b.letter", 2L, 42L, document("b.letter", body));
+            store.append("c.letter", 3L, 42L, document("c.letter", "different"));
+            store.delete("a.letter");
+        }
+
+        try (DocumentStore store = DocumentStore.open(directory)) {
+            assertThat(store.get("b.letter").getDocument().getAttribute(PATH)).isEqualTo("b.letter");
+            assertThat(store.get("b.letter").getDocument().getAttribute(BODY)).isEqualTo(body);
+            assertThat(store.get("b.letter").getContentHash().getAsLong()).isEqualTo(42L);
+            assertThat(store.get("c.letter").getDocument().getAttribute(BODY)).isEqualTo("different");
+            store.merge();
+        }
+        assertThat(Files.size(segment())).isLessThan(contentSize + 200);
+
+        try (DocumentStore store = DocumentStore.open(directory)) {
+            assertThat(paths(store)).containsExactly("b.letter", "c.letter");
+            assertThat(store.get("b.letter").getDocument().getAttribute(BODY)).isEqualTo(body);
+        }
+    }
+
+    @Test
+    void shouldMergeSegmentsIntoLatestRecords() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            try (DocumentStore store = DocumentStore.open(directory)) {
+                store.append("a.letter", i, document("a.letter", "version " + i));
+            }
+        }
+
+        try (DocumentStore store = DocumentStore.open(directory)) {
+            assertThat(store.segmentCount()).isEqualTo(3);
+            store.merge();
+            assertThat(store.segmentCount()).isEqualTo(1);
+        }
+
+        try (DocumentStore store = DocumentStore.open(directory)) {
+            assertThat(store.get("a.letter").getDocument().getAttribute(BODY)).isEqualTo("version 2");
+        }
+    }
+
+    @Test
+    void shouldCountReplacedAndDeletedRecordsAsGarbageUntilMerge() throws Exception {
+        try (DocumentStore store = DocumentStore.open(directory)) {
+            store.append("a.letter", 1, document("a.letter", "first"));
+            store.append("b.letter", 1, document("b.letter", "only"));
+            assertThat(store.garbageBytes()).isEqualTo(0L);
+
+            store.append("a.letter", 2, document("a.letter", "second"));
+            store.delete("b.letter");
+            assertThat(store.garbageBytes()).isGreaterThan(0);
+        }
+
+        try (DocumentStore store = DocumentStore.open(directory)) {
+            // 다시 열어도 같은 garbage 를 센다. 병합은 garbage 가 쌓일 때까지 미룬다.
+            assertThat(store.garbageBytes()).isGreaterThan(0);
+            assertThat(store.segmentCount()).isEqualTo(1);
+            store.merge();
+            assertThat(store.garbageBytes()).isEqualTo(0L);
+            assertThat(paths(store)).containsExactly("a.letter");
+        }
+    }
+
+    // 세그먼트가 하나뿐일 때 그 세그먼트
+    private Path segment() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".dms")).findFirst().get();
+        }
+    }
+
+    private static Document document(final String path, final String body) {
+        return Document.restore(Map.of(PATH, path, BODY, body));
+    }
+
+    private static List<String> paths(final DocumentStore store) {
+        final List<String> paths = new ArrayList<>();
+        store.documents().forEach(stored -> paths.add(stored.getPath()));
+        return paths;
+    }
+}
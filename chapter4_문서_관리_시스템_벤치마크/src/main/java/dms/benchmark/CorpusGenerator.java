@@ -0,0 +1,269 @@
+package dms.benchmark;
+
+import dms.document.ContentHash;
+import dms.document.Document;
+import dms.store.DocumentStore;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static dms.constants.Attributes.*;
+
+/**
+ * 벤치마크용 합성 문서 생성기
+ *
+ * 임포터가 기대하는 형식의 편지, 보고서, 청구서와 이미지를 만든다.
+ * 같은 seed 라면 항상 같은 문서를 만든다.
+ * - 환자 이름 : 40 x 40 = 1600 명
+ * - 본문 : 치과 용어 사전에서 앞쪽 단어가 자주 나오도록 뽑는다.
+ *
+ * 검색 벤치마크처럼 문서가 많이 필요할 때는 파일 대신 저장소 로그를 바로 만들어
+ * DocumentManagementSystem 이 저장소를 불러오는 경로로 색인하게 한다.
+ */
+public final class CorpusGenerator {
+    public static final String LETTER = "letter";
+    public static final String REPORT = "report";
+    public static final String INVOICE = "invoice";
+    public static final String IMAGE = "jpg";
+    public static final List<String> TYPES = List.of(LETTER, REPORT, INVOICE, IMAGE);
+
+    private static final String[] FIRST_NAMES = {
+        "Joe", "Jane", "John", "Mary", "Peter", "Sarah", "David", "Emma", "James", "Olivia",
+        "Robert", "Sophia", "Michael", "Isabella", "William", "Mia", "Richard", "Amelia", "Thomas", "Harper",
+        "Charles", "Evelyn", "Daniel", "Abigail", "Matthew", "Emily", "Anthony", "Ella", "Mark", "Grace",
+        "Paul", "Chloe", "Steven", "Lily", "Andrew", "Hannah", "Joshua", "Zoe", "Kevin", "Nora"
+    };
+    private static final String[] LAST_NAMES = {
+        "Bloggs", "Smith", "Jones", "Taylor", "Brown", "Williams", "Wilson", "Johnson", "Davies", "Robinson",
+        "Wright", "Thompson", "Evans", "Walker", "White", "Roberts", "Green", "Hall", "Wood", "Jackson",
+        "Clarke", "Patel", "Khan", "Lewis", "James", "Phillips", "Mason", "Mitchell", "Rose", "Davis",
+        "Rodriguez", "Cox", "Alexander", "Garden", "Campbell", "Johnston", "Moore", "Smyth", "Oneill", "Doherty"
+    };
+    private static final String[] STREETS = {
+        "Fake Street", "High Street", "Station Road", "Main Street", "Park Road", "Church Lane", "Victoria Road"
+    };
+    private static final String[] CITIES = {"London", "Manchester", "Leeds", "Bristol", "Liverpool", "Cardiff"};
+    private static final String[] WORDS = {
+        "teeth", "tooth", "patient", "examined", "Coke", "Diet", "problems", "noted", "appointment", "filling",
+        "cavity", "gum", "gums", "molar", "incisor", "canine", "crown", "bridge", "implant", "extraction",
+        "root", "canal", "enamel", "plaque", "tartar", "floss", "brush", "fluoride", "xray", "scan",
+        "pain", "sensitivity", "swelling", "bleeding", "infection", "abscess", "antibiotics", "anaesthetic", "numb", "drill",
+        "cleaning", "polish", "whitening", "braces", "retainer", "aligner", "bite", "jaw", "wisdom", "impacted",
+        "decay", "erosion", "sugar", "acid", "diet", "drinking", "switch", "recommended", "discussed", "advised",
+        "review", "follow", "weeks", "months", "treatment", "plan", "cost", "insurance", "referral", "specialist",
+        "hygienist", "dentist", "surgery", "clinic", "morning", "afternoon", "reschedule", "confirm", "cancel", "remind"
+    };
+
+    private final Random random;
+
+    public CorpusGenerator(final long seed) {
+        this.random = new Random(seed);
+    }
+
+    // index 번째 환자 이름, 1600 명을 순환한다.
+    public static String patient(final int index) {
+        return FIRST_NAMES[index % FIRST_NAMES.length] + " " + LAST_NAMES[(index / FIRST_NAMES.length) % LAST_NAMES.length];
+    }
+
+    public static int patientCount() {
+        return FIRST_NAMES.length * LAST_NAMES.length;
+    }
+
+    // 본문 검색어로 쓸 단어
+    public static String word(final int index) {
+        return WORDS[index % WORDS.length];
+    }
+
+    // type 형식의 파일을 count 개 만든다. 파일마다 내용이 다르므로 임포트 캐시에 걸리지 않는다.
+    public List<Path> writeFiles(final Path directory, final String type, final int count) throws IOException {
+        Files.createDirectories(directory);
+        final List<Path> files = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final Path file = directory.resolve(type + "-" + i + "." + type);
+            Files.write(file, contents(type, i));
+            files.add(file);
+        }
+        return files;
+    }
+
+    // 네 가지 종류를 번갈아 가며 count 개의 문서를 저장소 로그에 기록한다.
+    // 속성은 임포터가 같은 내용의 파일에서 만드는 속성과 같다. 환자는 종류와 상관없이 고른다.
+    public void writeStore(final Path storeDirectory, final int count) throws IOException {
+        try (DocumentStore store = DocumentStore.open(storeDirectory)) {
+            for (int i = 0; i < count; i++) {
+                final String type = TYPES.get(i % TYPES.size());
+                final String path = Paths.get("corpus", type + "-" + i + "." + type).toString();
+                final Map<String, String> attributes = attributes(type, patient(random.nextInt(patientCount())), path);
+                final byte[] identity = (path + attributes).getBytes(StandardCharsets.UTF_8);
+                store.append(path, 0, ContentHash.of(identity), Document.restore(attributes));
+            }
+            store.flush();
+        }
+    }
+
+    private byte[] contents(final String type, final int index) throws IOException {
+        switch (type) {
+            case LETTER:
+                return letter(index).getBytes(StandardCharsets.UTF_8);
+            case REPORT:
+                return report(index).getBytes(StandardCharsets.UTF_8);
+            case INVOICE:
+                return invoice(index).getBytes(StandardCharsets.UTF_8);
+            case IMAGE:
+                return image(64 + random.nextInt(576), 48 + random.nextInt(432));
+            default:
+                throw new IllegalArgumentException("Unknown type: " + type);
+        }
+    }
+
+    private Map<String, String> attributes(final String type, final String patient, final String path) {
+        final Map<String, String> attributes = new LinkedHashMap<>();
+        attributes.put(PATH, path);
+        switch (type) {
+            case LETTER:
+                attributes.put(PATIENT, patient);
+                attributes.put(ADDRESS, address());
+                attributes.put(BODY, body(2 + random.nextInt(3)));
+                attributes.put(TYPE, "LETTER");
+                break;
+            case REPORT:
+                attributes.put(PATIENT, patient);
+                attributes.put(BODY, body(3 + random.nextInt(5)));
+                attributes.put(TYPE, "REPORT");
+                break;
+            case INVOICE:
+                attributes.put(PATIENT, patient);
+                attributes.put(AMOUNT, amount());
+                attributes.put(TYPE, "INVOICE");
+                break;
+            case IMAGE:
+                attributes.put(WIDTH, Integer.toString(64 + random.nextInt(1856)));
+                attributes.put(HEIGHT, Integer.toString(48 + random.nextInt(1032)));
+                attributes.put(TYPE, "IMAGE");
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown type: " + type);
+        }
+        return attributes;
+    }
+
+    private String letter(final int index) {
+        return "Dear " + patient(index) + "\n" +
+            "\n" +
+            address() + "\n" +
+            "\n" +
+            body(2 + random.nextInt(3)) + "\n" +
+            "\n" +
+            "regards,\n" +
+            "\n" +
+            "  Dr Avaj\n" +
+            "  Awesome Dentist";
+    }
+
+    private String report(final int index) {
+        return "Patient: " + patient(index) + "\n" +
+            "\n" +
+            body(3 + random.nextInt(5));
+    }
+
+    private String invoice(final int index) {
+        return "Dear " + patient(index) + "\n" +
+            "\n" +
+            "Here is your invoice for the dental treatment that you received.\n" +
+            "\n" +
+            "Amount: " + amount() + "\n" +
+            "\n" +
+            "regards,\n" +
+            "\n" +
+            "  Dr Avaj\n" +
+            "  Awesome Dentist";
+    }
+
+    private String address() {
+        return (1 + random.nextInt(200)) + " " + STREETS[random.nextInt(STREETS.length)] + "\n" +
+            CITIES[random.nextInt(CITIES.length)] + "\n" +
+            "United Kingdom";
+    }
+
+    // 한 줄에 한 문장
+    private String body(final int sentences) {
+        final StringBuilder body = new StringBuilder();
+        for (int i = 0; i < sentences; i++) {
+            if (i > 0) {
+                body.append('\n');
+            }
+            final int words = 6 + random.nextInt(8);
+            for (int j = 0; j < words; j++) {
+                if (j > 0) {
+                    body.append(' ');
+                }
+                body.append(skewedWord());
+            }
+            body.append('.');
+        }
+        return body.toString();
+    }
+
+    // 앞쪽 단어일수록 자주 나온다.
+    private String skewedWord() {
+        final double r = random.nextDouble();
+        return WORDS[(int) (r * r * WORDS.length)];
+    }
+
+    private String amount() {
+        return "$" + (10 + random.nextInt(2000));
+    }
+
+    private byte[] image(final int width, final int height) throws IOException {
+        final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(random.nextInt(width), random.nextInt(height), random.nextInt());
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", bytes);
+        return bytes.toByteArray();
+    }
+
+    static void deleteRecursively(final Path directory) {
+        if (directory == null || !Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> {
+                try {
+                    Files.delete(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // 코퍼스를 디렉토리에 만든다. 사용법: CorpusGenerator <디렉토리> <종류별 파일 수> [seed]
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: CorpusGenerator <directory> <files per type> [seed]");
+            System.exit(1);
+        }
+        final Path directory = Paths.get(args[0]);
+        final int count = Integer.parseInt(args[1]);
+        final CorpusGenerator generator = new CorpusGenerator(args.length > 2 ? Long.parseLong(args[2]) : 42);
+        for (final String type : TYPES) {
+            generator.writeFiles(directory, type, count);
+        }
+    }
+}
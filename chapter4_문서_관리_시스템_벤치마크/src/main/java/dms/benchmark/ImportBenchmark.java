@@ -0,0 +1,120 @@
+package dms.benchmark;
+
+import dms.DocumentManagementSystem;
+import dms.ImportResult;
+import dms.document.Document;
+import dms.document.ImageImporter;
+import dms.document.Importer;
+import dms.document.InvoiceImporter;
+import dms.document.LetterImporter;
+import dms.document.ReportImporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 문서 종류별 임포트 처리량
+ *
+ * - importer : 임포터 하나가 파일을 읽어 문서를 만드는 비용
+ * - importFiles : 새 문서 관리 시스템에 FILES 개를 한 번에 임포트하는 비용
+ *                 (파이프라인, 내용 해시, 색인 반영 포함, 결과는 파일 하나당 시간)
+ * 파일마다 내용이 다르므로 임포트 캐시에 걸리지 않는다.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ImportBenchmark {
+    private static final int FILES = 1000;
+
+    @Param({CorpusGenerator.LETTER, CorpusGenerator.REPORT, CorpusGenerator.INVOICE, CorpusGenerator.IMAGE})
+    public String type;
+
+    private Path directory;
+    private List<File> files;
+    private List<String> paths;
+    private Importer importer;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        directory = Files.createTempDirectory("dms-import-benchmark");
+        files = new CorpusGenerator(42).writeFiles(directory, type, FILES).stream()
+            .map(Path::toFile)
+            .collect(Collectors.toList());
+        paths = files.stream().map(File::getPath).collect(Collectors.toList());
+        importer = importerFor(type);
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() {
+        CorpusGenerator.deleteRecursively(directory);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        File next(final List<File> files) {
+            final File file = files.get(next);
+            next = (next + 1) % files.size();
+            return file;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Document importer(final Cursor cursor) throws IOException {
+        return importer.importFile(cursor.next(files));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @OperationsPerInvocation(FILES)
+    @Warmup(iterations = 3, batchSize = 1)
+    @Measurement(iterations = 10, batchSize = 1)
+    public ImportResult importFiles() throws IOException {
+        try (DocumentManagementSystem system = new DocumentManagementSystem()) {
+            final ImportResult result = system.importFiles(paths);
+            if (result.hasFailures()) {
+                throw new IllegalStateException("Import failed: " + result);
+            }
+            return result;
+        }
+    }
+
+    private static Importer importerFor(final String type) {
+        switch (type) {
+            case CorpusGenerator.LETTER:
+                return new LetterImporter();
+            case CorpusGenerator.REPORT:
+                return new ReportImporter();
+            case CorpusGenerator.INVOICE:
+                return new InvoiceImporter();
+            case CorpusGenerator.IMAGE:
+                return new ImageImporter();
+            default:
+                throw new IllegalArgumentException("Unknown type: " + type);
+        }
+    }
+}
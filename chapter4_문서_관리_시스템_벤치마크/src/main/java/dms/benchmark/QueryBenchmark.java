@@ -0,0 +1,48 @@
+package dms.benchmark;
+
+import dms.document.Document;
+import dms.query.Query;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static dms.constants.Attributes.*;
+
+/**
+ * 쿼리 파싱과 문서 한 건 평가 비용
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class QueryBenchmark {
+    private static final String QUERY = "(type:LETTER OR type:REPORT),patient:Jo*,NOT body:\"Diet Coke\",amount<500";
+
+    private final Query query = Query.parse(QUERY);
+    private final Document document = Document.restore(Map.of(
+        PATH, "patient.report",
+        PATIENT, "Joe Bloggs",
+        BODY, "On 5th January 2017 I examined Joe's teeth.\nWe discussed his switch from drinking Coke to Diet Coke.",
+        TYPE, "REPORT"));
+
+    @Benchmark
+    public Query parse() {
+        return Query.parse(QUERY);
+    }
+
+    @Benchmark
+    public boolean test() {
+        return query.test(document);
+    }
+}
@@ -0,0 +1,120 @@
+package dms.benchmark;
+
+import dms.DocumentManagementSystem;
+import dms.SearchPage;
+import dms.document.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 문서 수별 검색 지연 시간
+ *
+ * SampleTime 모드이므로 결과에 p0.50, p0.99 등 백분위 지연 시간이 함께 나온다.
+ * 문서는 저장소 로그로 만들어 두고 문서 관리 시스템이 시작할 때 불러오게 한다.
+ *
+ * 검색 결과 캐시(256 개)보다 많은 쿼리를 차례로 돌려 쓰므로 search, searchTop10 은 캐시에 걸리지 않는다.
+ * cachedSearch 는 같은 쿼리를 반복하여 캐시에 걸렸을 때의 비용을 잰다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class SearchBenchmark {
+    private static final int QUERY_VARIANTS = 1024;
+
+    @Param({"10000", "100000", "1000000"})
+    public int documents;
+
+    @Param({"patient", "typeAndPatient", "bodyOr", "phrase", "amountRange"})
+    public String query;
+
+    private Path storeDirectory;
+    private DocumentManagementSystem system;
+    private String[] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        storeDirectory = Files.createTempDirectory("dms-search-benchmark");
+        new CorpusGenerator(42).writeStore(storeDirectory, documents);
+        system = new DocumentManagementSystem(storeDirectory);
+        queries = queries(query, new Random(7));
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+        system.close();
+        CorpusGenerator.deleteRecursively(storeDirectory);
+    }
+
+    @Benchmark
+    public List<Document> search() {
+        return system.search(nextQuery());
+    }
+
+    // 관련도 상위 10 개
+    @Benchmark
+    public SearchPage searchTop10() {
+        return system.search(nextQuery(), 0, 10);
+    }
+
+    @Benchmark
+    public List<Document> cachedSearch() {
+        return system.search(queries[0]);
+    }
+
+    // 여러 스레드가 함께 돌리는 경우를 고려하지 않는다. 순서가 엇갈려도 쿼리 분포는 같다.
+    private String nextQuery() {
+        final String next = queries[this.next];
+        this.next = (this.next + 1) % queries.length;
+        return next;
+    }
+
+    private static String[] queries(final String kind, final Random random) {
+        final String[] queries = new String[QUERY_VARIANTS];
+        for (int i = 0; i < queries.length; i++) {
+            final String patient = CorpusGenerator.patient(random.nextInt(CorpusGenerator.patientCount()));
+            switch (kind) {
+                case "patient":
+                    queries[i] = "patient:\"" + patient + "\"";
+                    break;
+                case "typeAndPatient":
+                    queries[i] = "type:INVOICE,patient:\"" + patient + "\"";
+                    break;
+                case "bodyOr":
+                    queries[i] = "body:" + CorpusGenerator.word(i) + " OR body:" + CorpusGenerator.word(i / 80 + 7);
+                    break;
+                case "phrase":
+                    queries[i] = "body:\"" + CorpusGenerator.word(i % 20) + " " + CorpusGenerator.word(i / 20) + "\"";
+                    break;
+                case "amountRange":
+                    final int min = random.nextInt(2000);
+                    queries[i] = "type:INVOICE,amount:[" + min + " TO " + (min + 1 + random.nextInt(200)) + "]";
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown query kind: " + kind);
+            }
+        }
+        return queries;
+    }
+}
@@ -0,0 +1,68 @@
+package dms.benchmark;
+
+import dms.TextFile;
+import dms.document.Document;
+import dms.document.LetterImporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static dms.constants.Attributes.*;
+
+/**
+ * 편지 한 통의 속성 추출 비용
+ * TextFile 로 줄 단위로 찾는 방식과 추출 명세(ExtractionSpec)로 한 번에 읽는 방식을 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TextFileBenchmark {
+    private Path directory;
+    private File letter;
+    private final LetterImporter importer = new LetterImporter();
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        directory = Files.createTempDirectory("dms-text-benchmark");
+        letter = new CorpusGenerator(42).writeFiles(directory, CorpusGenerator.LETTER, 1).get(0).toFile();
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() {
+        CorpusGenerator.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Map<String, String> textFile() throws IOException {
+        try (TextFile textFile = new TextFile(letter)) {
+            textFile.addLineSuffix("Dear ", PATIENT);
+            final int lineNumber = textFile.addLines(2, String::isBlank, ADDRESS);
+            textFile.addLines(lineNumber + 1, line -> line.startsWith("regards,"), BODY);
+            return textFile.getAttributes();
+        }
+    }
+
+    @Benchmark
+    public Document extractionSpec() throws IOException {
+        return importer.importFile(letter);
+    }
+}
@@ -0,0 +1,47 @@
+package business;
+
+/**
+ * 실행 전략
+ *
+ * 우선순위 순서로 조건을 평가하다가 몇 개의 규칙이 실행되면 멈출지 정한다.
+ * - firstMatch : 처음으로 조건이 참인 규칙 하나만 실행한다.
+ * - allMatch : 조건이 참인 모든 규칙을 실행한다.
+ * - maxMatches(n) : 조건이 참인 규칙을 n 개까지 실행한다.
+ */
+public final class ActivationStrategy {
+    private static final ActivationStrategy FIRST_MATCH = new ActivationStrategy(1);
+    private static final ActivationStrategy ALL_MATCH = new ActivationStrategy(Integer.MAX_VALUE);
+
+    private final int limit;
+
+    private ActivationStrategy(final int limit) {
+        this.limit = limit;
+    }
+
+    public static ActivationStrategy firstMatch() {
+        return FIRST_MATCH;
+    }
+
+    public static ActivationStrategy allMatch() {
+        return ALL_MATCH;
+    }
+
+    public static ActivationStrategy maxMatches(final int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be positive: " + count);
+        }
+        return count == 1 ? FIRST_MATCH : new ActivationStrategy(count);
+    }
+
+    // 실행할 수 있는 최대 규칙 수
+    int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public String toString() {
+        return "ActivationStrategy{" +
+            "limit=" + limit +
+            '}';
+    }
+}
@@ -0,0 +1,89 @@
+package business;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 우선순위(salience)가 있는 규칙 목록
+ *
+ * 규칙을 우선순위가 높은 순서로, 같은 우선순위라면 추가한 순서로 평가한다.
+ * 실행 전략이 정한 수만큼 규칙이 실행되면 남은 규칙은 평가하지 않는다.
+ * 뒤의 규칙은 앞의 규칙의 액션이 바꾼 팩트로 평가된다.
+ * run 은 규칙 목록을 바꾸지 않는다. 여러 스레드에서 실행할 때는 snapshot 으로 복사한 규칙 목록을 실행하여
+ * 실행 중에 추가되는 규칙의 영향을 받지 않게 한다.
+ */
+public class Agenda {
+    private static final Condition ALWAYS = facts -> true;
+
+    private final ActivationStrategy strategy;
+    // 우선순위 내림차순, 같은 우선순위는 추가한 순서
+    private final List<Entry> entries;
+
+    public Agenda(final ActivationStrategy strategy) {
+        this(strategy, new ArrayList<>());
+    }
+
+    private Agenda(final ActivationStrategy strategy, final List<Entry> entries) {
+        this.strategy = strategy;
+        this.entries = entries;
+    }
+
+    // DefaultRule 이 아닌 규칙은 조건이 항상 참인 우선순위 0 의 규칙으로 본다.
+    public void addRule(final Rule rule) {
+        if (rule instanceof DefaultRule) {
+            final DefaultRule defaultRule = (DefaultRule) rule;
+            addRule(defaultRule.getCondition(), defaultRule.getAction(), defaultRule.getSalience());
+        } else {
+            addRule(ALWAYS, rule::perform, DefaultRule.DEFAULT_SALIENCE);
+        }
+    }
+
+    public void addRule(final Condition condition, final Action action, final int salience) {
+        int position = entries.size();
+        while (position > 0 && entries.get(position - 1).salience < salience) {
+            position--;
+        }
+        entries.add(position, new Entry(condition, action, salience));
+    }
+
+    public int count() {
+        return entries.size();
+    }
+
+    public ActivationStrategy getStrategy() {
+        return strategy;
+    }
+
+    // 지금 규칙 목록의 불변 사본, 사본에는 규칙을 추가할 수 없다.
+    Agenda snapshot() {
+        return new Agenda(strategy, List.copyOf(entries));
+    }
+
+    // 실행한 규칙 수
+    public int run(final Facts facts) {
+        final int limit = strategy.getLimit();
+        int fired = 0;
+        for (final Entry entry : entries) {
+            if (fired == limit) {
+                break;
+            }
+            if (entry.condition.evaluate(facts)) {
+                entry.action.execute(facts);
+                fired++;
+            }
+        }
+        return fired;
+    }
+
+    private static final class Entry {
+        private final Condition condition;
+        private final Action action;
+        private final int salience;
+
+        private Entry(final Condition condition, final Action action, final int salience) {
+            this.condition = condition;
+            this.action = action;
+            this.salience = salience;
+        }
+    }
+}
@@ -1,14 +1,43 @@
 package business;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+/**
+ * 비즈니스 규칙 엔진
+ *
+ * 액션은 추가한 순서대로 모두 실행된다. 규칙은 Agenda 에 두어 우선순위 순서로 평가하고,
+ * 실행 전략에 따라 정해진 수의 규칙이 실행되면 남은 규칙은 평가하지 않는다. run 은 액션을 실행한 뒤 규칙을 실행한다.
+ *
+ * 한 Facts 에 실행하는 것 외에 여러 레코드를 한 번에 실행하는 배치 모드를 제공한다.
+ * - 배치를 시작할 때 액션 목록과 규칙 목록을 불변 목록으로 복사하여 모든 스레드가 공유한다.
+ * - 레코드를 코어 수에 맞춘 묶음으로 나누어 병렬로 실행한다.
+ * - 레코드마다 Facts 를 만들지 않도록 묶음마다 Facts 하나를 비워가며 다시 쓸 수 있다.
+ * - 레코드를 Stream 으로 받으면 목록으로 모으지 않고 병렬 스트림으로 실행한다.
+ * 액션과 규칙은 전달받은 Facts 만 변경해야 한다.
+ */
 public class BusinessRuleEngine {
+    // 묶음 수 = 코어 수 x CHUNKS_PER_THREAD, 레코드마다 비용이 달라도 스레드가 고르게 일하도록 잘게 나눈다.
+    private static final int CHUNKS_PER_THREAD = 4;
+
     private final List<Action> actions;
+    private final Agenda agenda;
     private final Facts facts;
 
     public BusinessRuleEngine(final Facts facts) {
+        this(facts, ActivationStrategy.allMatch());
+    }
+
+    public BusinessRuleEngine(final Facts facts, final ActivationStrategy strategy) {
         this.actions = new ArrayList<>();
+        this.agenda = new Agenda(strategy);
         this.facts = facts;
     }
 
@@ -16,11 +45,96 @@ public class BusinessRuleEngine {
         this.actions.add(action);
     }
 
+    // 우선순위는 RuleBuilder.salience 로 정한다.
+    public void addRule(final Rule rule) {
+        this.agenda.addRule(rule);
+    }
+
     public int count() {
-        return this.actions.size();
+        return this.actions.size() + this.agenda.count();
     }
 
     public void run() {
         this.actions.forEach(action -> action.execute(facts));
+        this.agenda.run(facts);
+    }
+
+    // 레코드마다 모든 액션을 실행한다. 레코드 사이에는 병렬로 실행된다.
+    public void runAll(final Collection<Facts> records) {
+        final List<Facts> recordList = List.copyOf(records);
+        final List<Action> snapshot = List.copyOf(actions);
+        final Agenda rules = agenda.snapshot();
+        forEachChunk(recordList.size(), (from, to) -> {
+            for (int i = from; i < to; i++) {
+                final Facts record = recordList.get(i);
+                snapshot.forEach(action -> action.execute(record));
+                rules.run(record);
+            }
+        });
+    }
+
+    // 레코드를 목록으로 모으지 않고 병렬 스트림으로 실행한다. 큰 파일이나 쿼리 결과를 읽으면서 실행할 때 사용한다.
+    public void runAll(final Stream<Facts> records) {
+        final List<Action> snapshot = List.copyOf(actions);
+        final Agenda rules = agenda.snapshot();
+        records.parallel().forEach(record -> {
+            snapshot.forEach(action -> action.execute(record));
+            rules.run(record);
+        });
+    }
+
+    // 레코드를 Facts 에 채워(loader) 액션을 실행하고 결과를 꺼낸다(extractor).
+    // Facts 는 묶음마다 하나를 만들어 레코드마다 비워서 다시 쓴다. 결과는 레코드 순서이다.
+    public <T, R> List<R> runAll(final List<T> records, final BiConsumer<T, Facts> loader,
+                                 final Function<Facts, R> extractor) {
+        return runAll(records, loader, extractor, Facts::new);
+    }
+
+    // scratch 로 묶음마다 쓸 Facts 를 만든다. 예) () -> new SlotFacts(schema)
+    public <T, R> List<R> runAll(final List<T> records, final BiConsumer<T, Facts> loader,
+                                 final Function<Facts, R> extractor, final Supplier<? extends Facts> scratch) {
+        final List<Action> snapshot = List.copyOf(actions);
+        final Agenda rules = agenda.snapshot();
+        final Object[] results = new Object[records.size()];
+        forEachChunk(records.size(), (from, to) -> {
+            final Facts facts = scratch.get();
+            for (int i = from; i < to; i++) {
+                facts.clear();
+                loader.accept(records.get(i), facts);
+                for (final Action action : snapshot) {
+                    action.execute(facts);
+                }
+                rules.run(facts);
+                results[i] = extractor.apply(facts);
+            }
+        });
+
+        final List<R> resultList = new ArrayList<>(results.length);
+        for (final Object result : results) {
+            @SuppressWarnings("unchecked") final R typed = (R) result;
+            resultList.add(typed);
+        }
+        return resultList;
+    }
+
+    // [0, size) 를 묶음으로 나누어 공용 ForkJoinPool 에서 실행하고 모두 끝날 때까지 기다린다.
+    private static void forEachChunk(final int size, final ChunkTask task) {
+        if (size == 0) {
+            return;
+        }
+        final int chunks = Math.min(size, ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_THREAD);
+        final int chunkSize = (size + chunks - 1) / chunks;
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int from = 0; from < size; from += chunkSize) {
+            final int start = from;
+            final int end = Math.min(size, from + chunkSize);
+            futures.add(CompletableFuture.runAsync(() -> task.run(start, end)));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    @FunctionalInterface
+    private interface ChunkTask {
+        void run(int from, int to);
     }
 }
@@ -6,4 +6,9 @@ package business;
 public interface ConditionalAction {
     boolean evaluate(Facts facts);
     void perform(Facts facts);
+
+    // 우선순위, 높을수록 먼저 평가된다.
+    default int getSalience() {
+        return DefaultRule.DEFAULT_SALIENCE;
+    }
 }
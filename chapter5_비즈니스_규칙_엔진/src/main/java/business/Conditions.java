@@ -0,0 +1,331 @@
+package business;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 구조화된 조건
+ *
+ * 람다 조건과 달리 어떤 팩트를 어떻게 비교하는지 엔진이 알 수 있다.
+ * - 같은 내용의 조건은 equals 가 같으므로 엔진에서 하나의 조건으로 합쳐진다.
+ * - 팩트 값이 정해진 조건(factEquals, factIn)은 엔진이 팩트 값으로 색인한다.
+ * - and 는 값을 비교하는 조건을 람다 조건보다 먼저 평가하도록 순서를 바꾼다.
+ * 람다 조건과 함께 조합할 수 있다.
+ *
+ * RuleBuilder.when(and(factEquals("jobTitle", "CEO"), greaterThan("amount", 1000)))
+ */
+public final class Conditions {
+
+    private Conditions() {
+    }
+
+    public static Condition factEquals(final String name, final String value) {
+        return new FactIn(name, Set.of(value));
+    }
+
+    public static Condition factIn(final String name, final String... values) {
+        return new FactIn(name, Set.copyOf(Arrays.asList(values)));
+    }
+
+    public static Condition greaterThan(final String name, final double value) {
+        return new Compare(name, Operator.GREATER_THAN, value);
+    }
+
+    public static Condition greaterThanOrEqual(final String name, final double value) {
+        return new Compare(name, Operator.GREATER_THAN_OR_EQUAL, value);
+    }
+
+    public static Condition lessThan(final String name, final double value) {
+        return new Compare(name, Operator.LESS_THAN, value);
+    }
+
+    public static Condition lessThanOrEqual(final String name, final double value) {
+        return new Compare(name, Operator.LESS_THAN_OR_EQUAL, value);
+    }
+
+    public static Condition and(final Condition... conditions) {
+        final List<Condition> operands = new ArrayList<>();
+        for (final Condition condition : conditions) {
+            if (condition instanceof AllOf) {
+                operands.addAll(((AllOf) condition).operands);
+            } else {
+                operands.add(condition);
+            }
+        }
+        // 안정 정렬이므로 같은 부류 안에서는 작성한 순서를 지킨다.
+        operands.sort((left, right) -> Integer.compare(cost(left), cost(right)));
+        return operands.size() == 1 ? operands.get(0) : new AllOf(operands);
+    }
+
+    public static Condition or(final Condition... conditions) {
+        return conditions.length == 1 ? conditions[0] : new AnyOf(Arrays.asList(conditions));
+    }
+
+    public static Condition not(final Condition condition) {
+        return new Not(condition);
+    }
+
+    // 엔진이 색인에 쓸 조건, 조건이 참이려면 반드시 참이어야 하는 factIn 이다. 없다면 null
+    static FactIn indexKey(final Condition condition) {
+        if (condition instanceof FactIn) {
+            return (FactIn) condition;
+        }
+        if (condition instanceof AllOf) {
+            for (final Condition operand : ((AllOf) condition).operands) {
+                if (operand instanceof FactIn) {
+                    return (FactIn) operand;
+                }
+            }
+        }
+        return null;
+    }
+
+    // 평가 비용 순서, 값 비교 < 조합 < 람다
+    private static int cost(final Condition condition) {
+        if (condition instanceof FactIn || condition instanceof Compare) {
+            return 0;
+        }
+        if (condition instanceof AnyOf || condition instanceof Not) {
+            return 1;
+        }
+        return 2;
+    }
+
+    static final class FactIn implements Condition {
+        private final String name;
+        private final Set<String> values;
+
+        private FactIn(final String name, final Set<String> values) {
+            this.name = Objects.requireNonNull(name);
+            this.values = values;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        Set<String> getValues() {
+            return values;
+        }
+
+        @Override
+        public boolean evaluate(final Facts facts) {
+            final String value = facts.getFact(name);
+            return value != null && values.contains(value);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof FactIn)) {
+                return false;
+            }
+            final FactIn factIn = (FactIn) o;
+            return name.equals(factIn.name) && values.equals(factIn.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, values);
+        }
+
+        @Override
+        public String toString() {
+            return values.size() == 1
+                ? name + " == " + values.iterator().next()
+                : name + " in " + new LinkedHashSet<>(values);
+        }
+    }
+
+    enum Operator {
+        GREATER_THAN(">"),
+        GREATER_THAN_OR_EQUAL(">="),
+        LESS_THAN("<"),
+        LESS_THAN_OR_EQUAL("<="),
+        ;
+
+        private final String symbol;
+
+        Operator(final String symbol) {
+            this.symbol = symbol;
+        }
+    }
+
+    static final class Compare implements Condition {
+        private final String name;
+        private final Operator operator;
+        private final double value;
+
+        private Compare(final String name, final Operator operator, final double value) {
+            this.name = Objects.requireNonNull(name);
+            this.operator = operator;
+            this.value = value;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        Operator getOperator() {
+            return operator;
+        }
+
+        double getValue() {
+            return value;
+        }
+
+        // 팩트가 없거나 숫자가 아니면 NaN 이므로 거짓
+        @Override
+        public boolean evaluate(final Facts facts) {
+            final double number = facts.number(name);
+            switch (operator) {
+                case GREATER_THAN:
+                    return number > value;
+                case GREATER_THAN_OR_EQUAL:
+                    return number >= value;
+                case LESS_THAN:
+                    return number < value;
+                case LESS_THAN_OR_EQUAL:
+                    return number <= value;
+                default:
+                    throw new IllegalStateException("Unknown operator: " + operator);
+            }
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Compare)) {
+                return false;
+            }
+            final Compare compare = (Compare) o;
+            return name.equals(compare.name) && operator == compare.operator
+                && Double.compare(value, compare.value) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, operator, value);
+        }
+
+        @Override
+        public String toString() {
+            return name + " " + operator.symbol + " " + value;
+        }
+    }
+
+    static final class AllOf implements Condition {
+        private final List<Condition> operands;
+
+        private AllOf(final List<Condition> operands) {
+            this.operands = Collections.unmodifiableList(operands);
+        }
+
+        List<Condition> getOperands() {
+            return operands;
+        }
+
+        @Override
+        public boolean evaluate(final Facts facts) {
+            for (final Condition operand : operands) {
+                if (!operand.evaluate(facts)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return this == o || (o instanceof AllOf && operands.equals(((AllOf) o).operands));
+        }
+
+        @Override
+        public int hashCode() {
+            return operands.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "and" + operands;
+        }
+    }
+
+    static final class AnyOf implements Condition {
+        private final List<Condition> operands;
+
+        private AnyOf(final List<Condition> operands) {
+            this.operands = Collections.unmodifiableList(new ArrayList<>(operands));
+        }
+
+        List<Condition> getOperands() {
+            return operands;
+        }
+
+        @Override
+        public boolean evaluate(final Facts facts) {
+            for (final Condition operand : operands) {
+                if (operand.evaluate(facts)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return this == o || (o instanceof AnyOf && operands.equals(((AnyOf) o).operands));
+        }
+
+        @Override
+        public int hashCode() {
+            return operands.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "or" + operands;
+        }
+    }
+
+    static final class Not implements Condition {
+        private final Condition operand;
+
+        private Not(final Condition operand) {
+            this.operand = Objects.requireNonNull(operand);
+        }
+
+        Condition getOperand() {
+            return operand;
+        }
+
+        @Override
+        public boolean evaluate(final Facts facts) {
+            return !operand.evaluate(facts);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return this == o || (o instanceof Not && operand.equals(((Not) o).operand));
+        }
+
+        @Override
+        public int hashCode() {
+            return ~operand.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "not(" + operand + ")";
+        }
+    }
+}
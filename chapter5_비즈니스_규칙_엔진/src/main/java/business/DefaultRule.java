@@ -1,12 +1,33 @@
 package business;
 
 public class DefaultRule implements Rule {
+    static final int DEFAULT_SALIENCE = 0;
+
     private final Condition condition;
     private final Action action;
+    // 클수록 먼저 평가된다.
+    private final int salience;
 
     public DefaultRule(final Condition condition, final Action action) {
+        this(condition, action, DEFAULT_SALIENCE);
+    }
+
+    public DefaultRule(final Condition condition, final Action action, final int salience) {
         this.condition = condition;
         this.action = action;
+        this.salience = salience;
+    }
+
+    Condition getCondition() {
+        return condition;
+    }
+
+    Action getAction() {
+        return action;
+    }
+
+    int getSalience() {
+        return salience;
     }
 
     @Override
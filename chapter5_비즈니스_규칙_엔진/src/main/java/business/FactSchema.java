@@ -0,0 +1,108 @@
+package business;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 팩트 스키마
+ *
+ * 팩트 이름마다 슬롯 번호와 저장 형식을 정한다. SlotFacts 는 이 슬롯 번호로 배열에 값을 둔다.
+ * 스키마는 불변이므로 여러 SlotFacts 와 스레드가 공유한다.
+ *
+ * FactSchema.builder()
+ *     .stringFact("jobTitle")
+ *     .doubleFact("amount")
+ *     .enumFact("stage", Stage.class)
+ *     .build();
+ */
+public final class FactSchema {
+    private final String[] names;
+    private final FactType[] types;
+    private final Class<?>[] enumTypes;
+    private final Map<String, Integer> slots;
+
+    private FactSchema(final Builder builder) {
+        this.names = builder.names.toArray(new String[0]);
+        this.types = builder.types.toArray(new FactType[0]);
+        this.enumTypes = builder.enumTypes.toArray(new Class<?>[0]);
+        final Map<String, Integer> slots = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            slots.put(names[i], i);
+        }
+        this.slots = Collections.unmodifiableMap(slots);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // 스키마에 없는 이름이면 -1
+    public int slot(final String name) {
+        final Integer slot = slots.get(name);
+        return slot == null ? -1 : slot;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String name(final int slot) {
+        return names[slot];
+    }
+
+    public FactType type(final int slot) {
+        return types[slot];
+    }
+
+    // ENUM 슬롯의 enum 클래스, 아니면 null
+    Class<?> enumType(final int slot) {
+        return enumTypes[slot];
+    }
+
+    public static final class Builder {
+        private final List<String> names = new ArrayList<>();
+        private final List<FactType> types = new ArrayList<>();
+        private final List<Class<?>> enumTypes = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder longFact(final String name) {
+            return add(name, FactType.LONG, null);
+        }
+
+        public Builder doubleFact(final String name) {
+            return add(name, FactType.DOUBLE, null);
+        }
+
+        public Builder booleanFact(final String name) {
+            return add(name, FactType.BOOLEAN, null);
+        }
+
+        public Builder stringFact(final String name) {
+            return add(name, FactType.STRING, null);
+        }
+
+        public <E extends Enum<E>> Builder enumFact(final String name, final Class<E> type) {
+            return add(name, FactType.ENUM, Objects.requireNonNull(type));
+        }
+
+        public FactSchema build() {
+            return new FactSchema(this);
+        }
+
+        private Builder add(final String name, final FactType type, final Class<?> enumType) {
+            if (names.contains(Objects.requireNonNull(name))) {
+                throw new IllegalArgumentException("Duplicate fact: " + name);
+            }
+            names.add(name);
+            types.add(type);
+            enumTypes.add(enumType);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package business;
+
+/**
+ * 스키마에 정의된 팩트의 저장 형식
+ */
+public enum FactType {
+    LONG,
+    DOUBLE,
+    BOOLEAN,
+    STRING,
+    ENUM,
+    ;
+}
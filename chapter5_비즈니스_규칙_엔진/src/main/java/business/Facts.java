@@ -1,16 +1,96 @@
 package business;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 public class Facts {
     private final Map<String, String> facts = new HashMap<>();
+    // 팩트 값이 바뀔 때 통지받는 리스너
+    private final List<FactListener> listeners = new ArrayList<>(0);
+    // null 이 아니면 조회한 팩트 이름을 기록한다.
+    private Set<String> reads;
 
     public String getFact(final String name) {
+        recordRead(name);
         return this.facts.get(name);
     }
 
     public void addFact(final String name, final String value) {
-        this.facts.put(name, value);
+        final String previous = this.facts.put(name, value);
+        changed(name, previous, value);
+    }
+
+    // 모든 팩트를 지운다. 배치 실행에서 한 객체를 여러 레코드에 다시 쓸 때 사용한다.
+    public void clear() {
+        if (hasListeners()) {
+            final Map<String, String> removed = new HashMap<>(this.facts);
+            this.facts.clear();
+            removed.forEach((name, previous) -> changed(name, previous, null));
+            return;
+        }
+        this.facts.clear();
+    }
+
+    // 숫자로 읽은 팩트, 없거나 숫자가 아니면 NaN
+    double number(final String name) {
+        return parseNumber(getFact(name));
+    }
+
+    static double parseNumber(final String value) {
+        if (value == null) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    void addListener(final FactListener listener) {
+        this.listeners.add(listener);
+    }
+
+    void removeListener(final FactListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    boolean hasListeners() {
+        return !this.listeners.isEmpty();
+    }
+
+    // 조회한 팩트 이름을 reads 에 기록하기 시작한다. null 이면 기록을 멈춘다.
+    void trackReads(final Set<String> reads) {
+        this.reads = reads;
+    }
+
+    boolean isTrackingReads() {
+        return this.reads != null;
+    }
+
+    void recordRead(final String name) {
+        if (this.reads != null) {
+            this.reads.add(name);
+        }
+    }
+
+    // 값이 달라졌다면 리스너에 통지한다.
+    void changed(final String name, final String previous, final String value) {
+        if (Objects.equals(previous, value)) {
+            return;
+        }
+        for (final FactListener listener : this.listeners) {
+            listener.factChanged(name, previous, value);
+        }
+    }
+
+    @FunctionalInterface
+    interface FactListener {
+        // 없던 팩트라면 previous 가, 지워진 팩트라면 value 가 null 이다.
+        void factChanged(String name, String previous, String value);
     }
 }
@@ -2,20 +2,41 @@ package business;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
+/**
+ * 조건을 우선순위(salience)가 높은 순서로, 같은 우선순위라면 전달한 순서로 평가하여 보고서를 만든다.
+ * 실행 전략이 정한 수만큼 조건이 참이 되면 남은 조건은 평가하지 않으므로, 보고서는 평가한 조건까지만 있다.
+ */
 public class Inspector {
+    private final ActivationStrategy strategy;
     private final List<ConditionalAction> conditionalActions;
 
     public Inspector(ConditionalAction... conditionalActions) {
-        this.conditionalActions = Arrays.asList(conditionalActions);
+        this(ActivationStrategy.allMatch(), conditionalActions);
+    }
+
+    public Inspector(final ActivationStrategy strategy, final ConditionalAction... conditionalActions) {
+        this.strategy = strategy;
+        this.conditionalActions = new ArrayList<>(Arrays.asList(conditionalActions));
+        // 안정 정렬이므로 같은 우선순위는 전달한 순서를 유지한다.
+        this.conditionalActions.sort(Comparator.comparingInt(ConditionalAction::getSalience).reversed());
     }
 
     public List<Report> inspect(final Facts facts) {
         final List<Report> reports = new ArrayList<>();
+        final int limit = strategy.getLimit();
+        int positives = 0;
         for (final ConditionalAction conditionalAction : conditionalActions) {
+            if (positives == limit) {
+                break;
+            }
             final boolean conditionResult = conditionalAction.evaluate(facts);
             reports.add(new Report(facts, conditionalAction, conditionResult));
+            if (conditionResult) {
+                positives++;
+            }
         }
         return reports;
     }
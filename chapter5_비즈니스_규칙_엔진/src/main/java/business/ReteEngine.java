@@ -0,0 +1,302 @@
+package business;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Rete 방식의 점진적 규칙 엔진
+ *
+ * 규칙의 조건을 조건 노드(alpha)와 조인 노드(join)로 나누어 네트워크를 만든다.
+ * - Conditions.and 로 만든 조건은 피연산자마다, 그 밖의 조건은 조건 전체가 alpha 노드 하나가 된다.
+ *   같은 조건(람다는 같은 객체, 구조화된 조건은 equals)은 규칙 사이에 alpha 노드 하나를 공유하므로 한 번만 평가된다.
+ * - join 노드는 규칙의 alpha 노드가 모두 참인지 확인한다. 같은 조건의 규칙은 join 노드도 공유한다.
+ * - alpha 노드는 평가 결과와 평가 중에 조회한 팩트 이름을 기억한다.
+ *   join 노드는 alpha 노드를 순서대로 확인하다가 거짓이면 멈추므로, 필요하지 않은 alpha 노드는 평가하지 않는다.
+ * - Facts.addFact 로 값이 바뀌면 그 팩트를 조회했던 alpha 노드만 다시 평가하고, 그 노드를 쓰는 join 노드만 다시 확인한다.
+ *
+ * 팩트 값이 정해진 alpha 노드(Conditions.factEquals, factIn)는 팩트 값으로 색인한다.
+ * 팩트 값이 바뀌면 이전 값의 노드는 평가 없이 거짓이 되고, 새 값의 노드만 다시 평가한다.
+ * 따라서 평가 비용은 전체 규칙 수가 아니라 조건이 맞을 수 있는 규칙 수에 비례한다.
+ *
+ * run 은 다시 확인할 join 노드를 확인하고, 조건이 참이 된 규칙을 우선순위(salience)가 높은 순서로,
+ * 같은 우선순위라면 등록 순서대로 하나씩 실행한다.
+ * 액션이 팩트를 바꾸면 영향받는 노드를 다시 평가한 뒤 다음 규칙을 실행한다.
+ * 규칙은 조건이 다시 확인되어 참일 때마다 실행되므로, 서로의 팩트를 계속 바꾸는 규칙은 MAX_FIRINGS 에서 멈춘다.
+ * DefaultRule 이 아닌 규칙은 조건이 없는 규칙으로 보고 추가된 뒤 한 번 실행한다.
+ *
+ * 엔진은 Facts 의 변경을 통지받으므로 더 쓰지 않을 때는 close 로 통지를 끊는다.
+ */
+public class ReteEngine implements AutoCloseable {
+    // run 한 번에 실행할 수 있는 최대 규칙 수
+    static final int MAX_FIRINGS = 10_000;
+    private static final Condition ALWAYS = facts -> true;
+
+    private final Facts facts;
+    private final Facts.FactListener listener = this::factChanged;
+    private final Map<Condition, AlphaNode> alphas = new LinkedHashMap<>();
+    private final Map<Condition, JoinNode> joins = new LinkedHashMap<>();
+    private final List<RuleNode> rules = new ArrayList<>();
+    // 팩트 이름 → 그 팩트를 조회한 alpha 노드
+    private final Map<String, Set<AlphaNode>> dependents = new HashMap<>();
+    // 색인된 팩트 이름 → 팩트 값 → 그 값일 때만 참일 수 있는 alpha 노드
+    private final Map<String, Map<String, Set<AlphaNode>>> alphaIndex = new HashMap<>();
+    // 다시 확인할 join 노드
+    private final Set<JoinNode> dirty = new LinkedHashSet<>();
+    // 조건이 참이고 아직 실행되지 않은 규칙, 우선순위 내림차순과 등록 순서
+    private final TreeSet<RuleNode> agenda = new TreeSet<>();
+
+    public ReteEngine(final Facts facts) {
+        this.facts = facts;
+        this.facts.addListener(listener);
+    }
+
+    public void addRule(final Rule rule) {
+        if (rule instanceof DefaultRule) {
+            final DefaultRule defaultRule = (DefaultRule) rule;
+            addRule(defaultRule.getCondition(), defaultRule.getAction(), defaultRule.getSalience());
+        } else {
+            addRule(ALWAYS, rule::perform);
+        }
+    }
+
+    public void addRule(final Condition condition, final Action action) {
+        addRule(condition, action, DefaultRule.DEFAULT_SALIENCE);
+    }
+
+    public void addRule(final Condition condition, final Action action, final int salience) {
+        JoinNode join = joins.get(condition);
+        final boolean shared = join != null;
+        if (!shared) {
+            join = join(condition);
+            joins.put(condition, join);
+            dirty.add(join);
+        }
+        final RuleNode rule = new RuleNode(rules.size(), salience, action);
+        rules.add(rule);
+        join.rules.add(rule);
+        if (shared && join.checked && join.result && !dirty.contains(join)) {
+            agenda.add(rule);
+        }
+    }
+
+    public int count() {
+        return rules.size();
+    }
+
+    // 공유된 alpha 노드 수
+    int nodeCount() {
+        return alphas.size();
+    }
+
+    public void run() {
+        int firings = 0;
+        while (true) {
+            checkDirtyJoins();
+            final RuleNode next = agenda.pollFirst();
+            if (next == null) {
+                return;
+            }
+            if (++firings > MAX_FIRINGS) {
+                throw new IllegalStateException("Rules did not settle after " + MAX_FIRINGS + " firings");
+            }
+            next.action.execute(facts);
+        }
+    }
+
+    // Facts 의 변경 통지를 끊는다.
+    @Override
+    public void close() {
+        facts.removeListener(listener);
+    }
+
+    // 조건을 alpha 노드로 나누어 join 노드를 만든다.
+    private JoinNode join(final Condition condition) {
+        final List<Condition> operands = condition instanceof Conditions.AllOf
+            ? ((Conditions.AllOf) condition).getOperands()
+            : Collections.singletonList(condition);
+        final JoinNode join = new JoinNode(operands.size());
+        for (final Condition operand : operands) {
+            AlphaNode alpha = alphas.get(operand);
+            if (alpha == null) {
+                alpha = new AlphaNode(operand, Conditions.indexKey(operand));
+                alphas.put(operand, alpha);
+                index(alpha);
+            }
+            alpha.joins.add(join);
+            join.alphas.add(alpha);
+        }
+        return join;
+    }
+
+    // 색인할 수 있는 노드는 지금 팩트 값으로 참일 수 없다면 평가하지 않고 거짓으로 둔다.
+    private void index(final AlphaNode alpha) {
+        if (alpha.key == null) {
+            return;
+        }
+        final Map<String, Set<AlphaNode>> byValue = alphaIndex.computeIfAbsent(alpha.key.getName(), key -> new HashMap<>());
+        for (final String value : alpha.key.getValues()) {
+            byValue.computeIfAbsent(value, key -> new LinkedHashSet<>()).add(alpha);
+        }
+        if (!canMatch(alpha)) {
+            alpha.evaluated = true;
+            alpha.result = false;
+        }
+    }
+
+    private void checkDirtyJoins() {
+        while (!dirty.isEmpty()) {
+            final Iterator<JoinNode> iterator = dirty.iterator();
+            final JoinNode join = iterator.next();
+            iterator.remove();
+            check(join);
+        }
+    }
+
+    // alpha 노드를 순서대로 확인하여 결과에 따라 규칙을 agenda 에 넣거나 뺀다.
+    private void check(final JoinNode join) {
+        boolean result = true;
+        for (final AlphaNode alpha : join.alphas) {
+            if (!value(alpha)) {
+                result = false;
+                break;
+            }
+        }
+        join.checked = true;
+        join.result = result;
+        for (final RuleNode rule : join.rules) {
+            if (result) {
+                agenda.add(rule);
+            } else {
+                agenda.remove(rule);
+            }
+        }
+    }
+
+    // 캐시된 결과, 평가된 적이 없거나 바뀐 팩트를 읽었다면 다시 평가한다.
+    private boolean value(final AlphaNode alpha) {
+        if (!alpha.evaluated) {
+            evaluate(alpha);
+        }
+        return alpha.result;
+    }
+
+    // 조건을 평가하면서 조회한 팩트를 새 의존 관계로 등록한다.
+    private void evaluate(final AlphaNode alpha) {
+        final Set<String> reads = new HashSet<>();
+        facts.trackReads(reads);
+        try {
+            alpha.result = alpha.condition.evaluate(facts);
+        } finally {
+            facts.trackReads(null);
+        }
+        alpha.evaluated = true;
+        // 색인된 팩트의 변경은 alphaIndex 로 전달된다.
+        if (alpha.key != null) {
+            reads.remove(alpha.key.getName());
+        }
+
+        for (final String name : alpha.dependencies) {
+            if (!reads.contains(name)) {
+                dependents.get(name).remove(alpha);
+            }
+        }
+        for (final String name : reads) {
+            dependents.computeIfAbsent(name, key -> new LinkedHashSet<>()).add(alpha);
+        }
+        alpha.dependencies = reads;
+    }
+
+    private void factChanged(final String name, final String previous, final String value) {
+        final Set<AlphaNode> affected = dependents.get(name);
+        if (affected != null) {
+            affected.forEach(this::invalidate);
+        }
+
+        final Map<String, Set<AlphaNode>> byValue = alphaIndex.get(name);
+        if (byValue == null) {
+            return;
+        }
+        final Set<AlphaNode> unmatched = previous == null ? null : byValue.get(previous);
+        if (unmatched != null) {
+            unmatched.forEach(this::reject);
+        }
+        final Set<AlphaNode> candidates = value == null ? null : byValue.get(value);
+        if (candidates != null) {
+            candidates.forEach(this::invalidate);
+        }
+    }
+
+    // 다음에 확인할 때 다시 평가하도록 표시한다.
+    private void invalidate(final AlphaNode alpha) {
+        alpha.evaluated = false;
+        dirty.addAll(alpha.joins);
+    }
+
+    // 색인된 팩트 값이 더 이상 맞지 않는 노드는 평가하지 않고 거짓으로 둔다.
+    private void reject(final AlphaNode alpha) {
+        alpha.evaluated = true;
+        alpha.result = false;
+        dirty.addAll(alpha.joins);
+    }
+
+    private boolean canMatch(final AlphaNode alpha) {
+        final String value = facts.getFact(alpha.key.getName());
+        return value != null && alpha.key.getValues().contains(value);
+    }
+
+    private static final class AlphaNode {
+        private final Condition condition;
+        // 색인에 쓰는 조건, 없다면 null
+        private final Conditions.FactIn key;
+        private final List<JoinNode> joins = new ArrayList<>(1);
+        private Set<String> dependencies = Collections.emptySet();
+        private boolean evaluated;
+        private boolean result;
+
+        private AlphaNode(final Condition condition, final Conditions.FactIn key) {
+            this.condition = condition;
+            this.key = key;
+        }
+    }
+
+    private static final class JoinNode {
+        // 확인할 순서, Conditions.and 가 값 비교를 앞에 둔다.
+        private final List<AlphaNode> alphas;
+        private final List<RuleNode> rules = new ArrayList<>(1);
+        private boolean checked;
+        private boolean result;
+
+        private JoinNode(final int size) {
+            this.alphas = new ArrayList<>(size);
+        }
+    }
+
+    private static final class RuleNode implements Comparable<RuleNode> {
+        private final int order;
+        private final int salience;
+        private final Action action;
+
+        private RuleNode(final int order, final int salience, final Action action) {
+            this.order = order;
+            this.salience = salience;
+            this.action = action;
+        }
+
+        @Override
+        public int compareTo(final RuleNode other) {
+            if (salience != other.salience) {
+                return Integer.compare(other.salience, salience);
+            }
+            return Integer.compare(order, other.order);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package business;
 public class RuleBuilder {
     private Condition condition;
     private Action action;
+    private int salience = DefaultRule.DEFAULT_SALIENCE;
 
     private RuleBuilder(final Condition condition) {
         this.condition = condition;
@@ -12,12 +13,24 @@ public class RuleBuilder {
         return new RuleBuilder(condition);
     }
 
+    // 조건을 하나 더 추가한다. 모든 조건이 참일 때 규칙이 실행된다.
+    public RuleBuilder and(final Condition condition) {
+        this.condition = Conditions.and(this.condition, condition);
+        return this;
+    }
+
     public RuleBuilder then(final Action action) {
         this.action = action;
         return this;
     }
 
+    // 우선순위, 클수록 먼저 평가된다.
+    public RuleBuilder salience(final int salience) {
+        this.salience = salience;
+        return this;
+    }
+
     public Rule createRule() {
-        return new DefaultRule(condition, action);
+        return new DefaultRule(condition, action, salience);
     }
 }
@@ -0,0 +1,363 @@
+package business;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 규칙 컴파일러
+ *
+ * RuleBuilder 로 만든 규칙 목록을 하나의 Rule 로 만든다.
+ * - 구조화된 조건(Conditions)은 팩트 이름 대신 슬롯 번호로 값을 읽는 노드로 바꾼다.
+ *   슬롯 값은 처음 필요할 때 한 번만 조회하고, 숫자로 비교하는 팩트는 이때 한 번만 파싱한다.
+ *   and, or 의 앞 조건으로 결과가 정해지면 뒤 조건의 팩트는 조회하지 않는다.
+ *   SlotFacts 라면 스키마에 있는 팩트는 스키마의 슬롯 번호로 이름을 해싱하지 않고 읽고, 숫자 팩트는 파싱하지 않는다.
+ * - 규칙의 조건과 액션은 배열에 두고 순서대로 확인한다.
+ *   노드는 final 클래스이므로 같은 모양의 규칙이 많으면 JIT 가 호출 지점의 타입 프로파일로 노드를 인라인한다.
+ *   (규칙을 MethodHandle 하나로 엮으면 컴파일마다 다른 핸들이라 JIT 가 상수로 다루지 못해 인라인되지 않고,
+ *   규칙을 순서대로 perform 하는 것보다 느렸다.)
+ * - 람다 조건과 액션은 그대로 호출한다.
+ * - 슬롯 값을 담는 배열은 스레드마다 하나를 만들어 다시 쓴다.
+ *
+ * 결과는 규칙을 순서대로 perform 한 것과 같다. 액션이 팩트를 바꿀 수 있으므로 액션을 실행한 뒤에는 슬롯을 다시 읽는다.
+ * 반환된 Rule 은 스레드 사이에 공유할 수 있다.
+ */
+public final class RuleCompiler {
+    private static final Check TRUE = new Constant(true);
+    private static final Check FALSE = new Constant(false);
+
+    // 팩트 이름 → 슬롯 번호
+    private final Map<String, Integer> slots = new LinkedHashMap<>();
+
+    private RuleCompiler() {
+    }
+
+    public static Rule compile(final List<Rule> rules) {
+        final RuleCompiler compiler = new RuleCompiler();
+        final Check[] conditions = new Check[rules.size()];
+        final Action[] actions = new Action[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            final Rule rule = rules.get(i);
+            if (rule instanceof DefaultRule) {
+                final DefaultRule defaultRule = (DefaultRule) rule;
+                conditions[i] = compiler.condition(defaultRule.getCondition());
+                actions[i] = defaultRule.getAction();
+            } else {
+                conditions[i] = TRUE;
+                actions[i] = rule::perform;
+            }
+        }
+        return new CompiledRules(compiler.slots.keySet().toArray(new String[0]), conditions, actions);
+    }
+
+    private Check condition(final Condition condition) {
+        if (condition instanceof Conditions.FactIn) {
+            final Conditions.FactIn factIn = (Conditions.FactIn) condition;
+            final int slot = slot(factIn.getName());
+            final Set<String> values = factIn.getValues();
+            return values.size() == 1
+                ? new EqualsAt(slot, values.iterator().next())
+                : new InAt(slot, values);
+        }
+        if (condition instanceof Conditions.Compare) {
+            final Conditions.Compare compare = (Conditions.Compare) condition;
+            return new CompareAt(slot(compare.getName()), compare.getOperator(), compare.getValue());
+        }
+        if (condition instanceof Conditions.AllOf) {
+            final List<Condition> operands = ((Conditions.AllOf) condition).getOperands();
+            // 빈 and 는 참
+            if (operands.isEmpty()) {
+                return TRUE;
+            }
+            return operands.size() == 1 ? condition(operands.get(0)) : new AllOf(conditions(operands));
+        }
+        if (condition instanceof Conditions.AnyOf) {
+            final List<Condition> operands = ((Conditions.AnyOf) condition).getOperands();
+            // 빈 or 는 거짓
+            if (operands.isEmpty()) {
+                return FALSE;
+            }
+            return operands.size() == 1 ? condition(operands.get(0)) : new AnyOf(conditions(operands));
+        }
+        if (condition instanceof Conditions.Not) {
+            return new Not(condition(((Conditions.Not) condition).getOperand()));
+        }
+        return new Evaluate(condition);
+    }
+
+    private Check[] conditions(final List<Condition> operands) {
+        final Check[] checks = new Check[operands.size()];
+        for (int i = 0; i < checks.length; i++) {
+            checks[i] = condition(operands.get(i));
+        }
+        return checks;
+    }
+
+    private int slot(final String name) {
+        return slots.computeIfAbsent(name, key -> slots.size());
+    }
+
+    /**
+     * 슬롯 번호로 팩트 값을 읽는 조건
+     */
+    private abstract static class Check {
+        abstract boolean test(Slots slots);
+    }
+
+    private static final class Constant extends Check {
+        private final boolean value;
+
+        private Constant(final boolean value) {
+            this.value = value;
+        }
+
+        @Override
+        boolean test(final Slots slots) {
+            return value;
+        }
+    }
+
+    private static final class EqualsAt extends Check {
+        private final int slot;
+        private final String value;
+
+        private EqualsAt(final int slot, final String value) {
+            this.slot = slot;
+            this.value = value;
+        }
+
+        @Override
+        boolean test(final Slots slots) {
+            return value.equals(slots.value(slot));
+        }
+    }
+
+    private static final class InAt extends Check {
+        private final int slot;
+        private final Set<String> values;
+
+        private InAt(final int slot, final Set<String> values) {
+            this.slot = slot;
+            this.values = values;
+        }
+
+        @Override
+        boolean test(final Slots slots) {
+            final String value = slots.value(slot);
+            return value != null && values.contains(value);
+        }
+    }
+
+    private static final class CompareAt extends Check {
+        private final int slot;
+        private final Conditions.Operator operator;
+        private final double value;
+
+        private CompareAt(final int slot, final Conditions.Operator operator, final double value) {
+            this.slot = slot;
+            this.operator = operator;
+            this.value = value;
+        }
+
+        // 숫자가 아닌 팩트는 NaN 이므로 모든 비교가 거짓이다.
+        @Override
+        boolean test(final Slots slots) {
+            final double number = slots.number(slot);
+            switch (operator) {
+                case GREATER_THAN:
+                    return number > value;
+                case GREATER_THAN_OR_EQUAL:
+                    return number >= value;
+                case LESS_THAN:
+                    return number < value;
+                case LESS_THAN_OR_EQUAL:
+                    return number <= value;
+                default:
+                    throw new IllegalStateException("Unknown operator: " + operator);
+            }
+        }
+    }
+
+    private static final class AllOf extends Check {
+        private final Check[] operands;
+
+        private AllOf(final Check[] operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        boolean test(final Slots slots) {
+            for (final Check operand : operands) {
+                if (!operand.test(slots)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class AnyOf extends Check {
+        private final Check[] operands;
+
+        private AnyOf(final Check[] operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        boolean test(final Slots slots) {
+            for (final Check operand : operands) {
+                if (operand.test(slots)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Not extends Check {
+        private final Check operand;
+
+        private Not(final Check operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        boolean test(final Slots slots) {
+            return !operand.test(slots);
+        }
+    }
+
+    // 람다 조건
+    private static final class Evaluate extends Check {
+        private final Condition condition;
+
+        private Evaluate(final Condition condition) {
+            this.condition = condition;
+        }
+
+        @Override
+        boolean test(final Slots slots) {
+            return condition.evaluate(slots.facts);
+        }
+    }
+
+    /**
+     * 한 번의 실행에서 슬롯 번호로 읽는 팩트 값
+     */
+    private static final class Slots {
+        private final String[] names;
+        private final String[] values;
+        private final double[] numbers;
+        // 슬롯 값을 읽었을 때의 generation, 지금 generation 과 같을 때만 배열의 값이 팩트 값이다.
+        private final int[] valueLoaded;
+        private final int[] numberLoaded;
+        private int generation;
+        // 실행 중인 팩트, 실행 중이 아니면 null
+        private Facts facts;
+        // 실행 중인 팩트가 SlotFacts 일 때 그 팩트, 아니면 null
+        private SlotFacts slotFacts;
+        // schema 의 슬롯 번호, 스키마에 없는 팩트는 -1
+        private FactSchema schema;
+        private int[] schemaSlots;
+
+        private Slots(final String[] names) {
+            this.names = names;
+            this.values = new String[names.length];
+            this.numbers = new double[names.length];
+            this.valueLoaded = new int[names.length];
+            this.numberLoaded = new int[names.length];
+        }
+
+        private void start(final Facts facts) {
+            this.facts = facts;
+            if (facts instanceof SlotFacts) {
+                slotFacts = (SlotFacts) facts;
+                resolve(slotFacts.getSchema());
+            }
+            invalidate();
+        }
+
+        private void finish() {
+            facts = null;
+            slotFacts = null;
+        }
+
+        // 스키마가 바뀔 때만 슬롯 번호를 다시 찾는다.
+        private void resolve(final FactSchema schema) {
+            if (schema == this.schema) {
+                return;
+            }
+            final int[] resolved = new int[names.length];
+            for (int i = 0; i < names.length; i++) {
+                resolved[i] = schema.slot(names[i]);
+            }
+            this.schemaSlots = resolved;
+            this.schema = schema;
+        }
+
+        // 이전에 읽은 값을 버린다. 배열을 비우지 않고 generation 만 바꾼다.
+        private void invalidate() {
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(valueLoaded, 0);
+                Arrays.fill(numberLoaded, 0);
+                generation = 1;
+            }
+        }
+
+        private String value(final int slot) {
+            if (valueLoaded[slot] != generation) {
+                values[slot] = slotFacts != null && schemaSlots[slot] >= 0
+                    ? slotFacts.factAt(schemaSlots[slot])
+                    : facts.getFact(names[slot]);
+                valueLoaded[slot] = generation;
+            }
+            return values[slot];
+        }
+
+        private double number(final int slot) {
+            if (numberLoaded[slot] != generation) {
+                numbers[slot] = slotFacts != null && schemaSlots[slot] >= 0
+                    ? slotFacts.numberAt(schemaSlots[slot])
+                    : facts.number(names[slot]);
+                numberLoaded[slot] = generation;
+            }
+            return numbers[slot];
+        }
+    }
+
+    private static final class CompiledRules implements Rule {
+        private final String[] names;
+        private final Check[] conditions;
+        private final Action[] actions;
+        private final ThreadLocal<Slots> scratch;
+
+        private CompiledRules(final String[] names, final Check[] conditions, final Action[] actions) {
+            this.names = names;
+            this.conditions = conditions;
+            this.actions = actions;
+            this.scratch = ThreadLocal.withInitial(() -> new Slots(names));
+        }
+
+        @Override
+        public void perform(final Facts facts) {
+            Slots slots = scratch.get();
+            // 액션 안에서 다시 perform 하면 바깥 실행의 슬롯을 덮지 않는다.
+            if (slots.facts != null) {
+                slots = new Slots(names);
+            }
+            slots.start(facts);
+            try {
+                for (int i = 0; i < conditions.length; i++) {
+                    if (conditions[i].test(slots)) {
+                        actions[i].execute(facts);
+                        slots.invalidate();
+                    }
+                }
+            } finally {
+                slots.finish();
+            }
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package business;
+
+/**
+ * 스키마의 슬롯 번호로 값을 두는 Facts
+ *
+ * 값을 문자열로 보관하지 않고 스키마에 정해진 형식으로 배열에 둔다.
+ * - LONG, DOUBLE, BOOLEAN : long 배열 (double 은 비트 그대로, boolean 은 0 과 1)
+ * - STRING, ENUM : Object 배열
+ *   LONG, DOUBLE, BOOLEAN 팩트를 이름으로 넣었다면 원래 문자열도 이 배열에 둔다.
+ * - 값이 있는지는 boolean 배열로 표시하므로 clear 한 뒤 배열을 그대로 다음 레코드에 다시 쓴다.
+ *
+ * 슬롯 번호로 읽고 쓰는 메소드는 이름을 해싱하거나 문자열을 파싱하지 않는다.
+ * ReteEngine 이 조건을 평가하는 동안에는 슬롯으로 읽은 팩트도 이름으로 기록하여 값이 바뀌면 조건을 다시 평가하게 한다.
+ * 이름으로 읽고 쓰는 Facts 의 메소드도 그대로 쓸 수 있다.
+ * - 스키마의 팩트는 형식에 맞게 변환된다. 숫자가 아닌 값을 숫자 팩트에 넣으면 IllegalArgumentException
+ * - 이름으로 넣은 값은 이름으로 읽으면 넣은 문자열 그대로이다. ("2000" 은 "2000.0" 이 되지 않는다.)
+ * - 슬롯 번호로 넣은 값을 이름으로 읽으면 정수인 double 은 소수점 없이("2000"), ENUM 은 상수 이름이 된다.
+ * - 스키마에 없는 팩트는 Facts 처럼 맵에 둔다.
+ */
+public class SlotFacts extends Facts {
+    private final FactSchema schema;
+    private final long[] primitives;
+    private final Object[] references;
+    private final boolean[] present;
+
+    public SlotFacts(final FactSchema schema) {
+        this.schema = schema;
+        this.primitives = new long[schema.size()];
+        this.references = new Object[schema.size()];
+        this.present = new boolean[schema.size()];
+    }
+
+    public FactSchema getSchema() {
+        return schema;
+    }
+
+    public boolean has(final int slot) {
+        recordRead(slot);
+        return present[slot];
+    }
+
+    // 값이 없다면 0
+    public long getLong(final int slot) {
+        checkType(slot, FactType.LONG);
+        recordRead(slot);
+        return primitives[slot];
+    }
+
+    public void setLong(final int slot, final long value) {
+        checkType(slot, FactType.LONG);
+        final String previous = previous(slot);
+        primitives[slot] = value;
+        references[slot] = null;
+        present[slot] = true;
+        stored(slot, previous);
+    }
+
+    // 값이 없다면 0
+    public double getDouble(final int slot) {
+        checkType(slot, FactType.DOUBLE);
+        recordRead(slot);
+        return Double.longBitsToDouble(primitives[slot]);
+    }
+
+    public void setDouble(final int slot, final double value) {
+        checkType(slot, FactType.DOUBLE);
+        final String previous = previous(slot);
+        primitives[slot] = Double.doubleToRawLongBits(value);
+        references[slot] = null;
+        present[slot] = true;
+        stored(slot, previous);
+    }
+
+    // 값이 없다면 false
+    public boolean getBoolean(final int slot) {
+        checkType(slot, FactType.BOOLEAN);
+        recordRead(slot);
+        return primitives[slot] != 0;
+    }
+
+    public void setBoolean(final int slot, final boolean value) {
+        checkType(slot, FactType.BOOLEAN);
+        final String previous = previous(slot);
+        primitives[slot] = value ? 1 : 0;
+        references[slot] = null;
+        present[slot] = true;
+        stored(slot, previous);
+    }
+
+    // 값이 없다면 null
+    public String getString(final int slot) {
+        checkType(slot, FactType.STRING);
+        recordRead(slot);
+        return (String) references[slot];
+    }
+
+    public void setString(final int slot, final String value) {
+        checkType(slot, FactType.STRING);
+        setReference(slot, value);
+    }
+
+    // 값이 없다면 null
+    public <E extends Enum<E>> E getEnum(final int slot, final Class<E> type) {
+        checkType(slot, FactType.ENUM);
+        recordRead(slot);
+        return type.cast(references[slot]);
+    }
+
+    public void setEnum(final int slot, final Enum<?> value) {
+        checkType(slot, FactType.ENUM);
+        if (value != null && value.getDeclaringClass() != schema.enumType(slot)) {
+            throw new IllegalArgumentException("Fact " + schema.name(slot) + " expects " + schema.enumType(slot).getName());
+        }
+        setReference(slot, value);
+    }
+
+    @Override
+    public String getFact(final String name) {
+        final int slot = schema.slot(name);
+        if (slot < 0) {
+            return super.getFact(name);
+        }
+        return factAt(slot);
+    }
+
+    @Override
+    public void addFact(final String name, final String value) {
+        final int slot = schema.slot(name);
+        if (slot < 0) {
+            super.addFact(name, value);
+            return;
+        }
+        final String previous = previous(slot);
+        if (value == null) {
+            reset(slot);
+        } else {
+            parse(slot, value);
+            present[slot] = true;
+        }
+        stored(slot, previous);
+    }
+
+    // 슬롯 배열은 그대로 두고 값이 없다고 표시한다.
+    @Override
+    public void clear() {
+        for (int slot = 0; slot < present.length; slot++) {
+            if (present[slot]) {
+                final String previous = previous(slot);
+                reset(slot);
+                stored(slot, previous);
+            }
+        }
+        super.clear();
+    }
+
+    // 숫자 슬롯은 파싱하지 않고 읽는다.
+    @Override
+    double number(final String name) {
+        final int slot = schema.slot(name);
+        if (slot < 0) {
+            return super.number(name);
+        }
+        return numberAt(slot);
+    }
+
+    // 슬롯 번호로 읽는 getFact
+    String factAt(final int slot) {
+        recordRead(slot);
+        return text(slot);
+    }
+
+    // 슬롯 번호로 읽는 number
+    double numberAt(final int slot) {
+        recordRead(slot);
+        if (!present[slot]) {
+            return Double.NaN;
+        }
+        switch (schema.type(slot)) {
+            case LONG:
+                return primitives[slot];
+            case DOUBLE:
+                return Double.longBitsToDouble(primitives[slot]);
+            case STRING:
+                return parseNumber((String) references[slot]);
+            default:
+                return Double.NaN;
+        }
+    }
+
+    // 숫자와 boolean 은 이름으로 다시 읽을 때 돌려줄 원래 문자열도 둔다.
+    private void parse(final int slot, final String value) {
+        try {
+            switch (schema.type(slot)) {
+                case LONG:
+                    primitives[slot] = Long.parseLong(value);
+                    references[slot] = value;
+                    break;
+                case DOUBLE:
+                    primitives[slot] = Double.doubleToRawLongBits(Double.parseDouble(value));
+                    references[slot] = value;
+                    break;
+                case BOOLEAN:
+                    primitives[slot] = Boolean.parseBoolean(value) ? 1 : 0;
+                    references[slot] = value;
+                    break;
+                case STRING:
+                    references[slot] = value;
+                    break;
+                case ENUM:
+                    references[slot] = enumValue(schema.enumType(slot), value);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown type: " + schema.type(slot));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value for fact " + schema.name(slot) + ": " + value, e);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object enumValue(final Class<?> type, final String value) {
+        return Enum.valueOf((Class) type, value);
+    }
+
+    private String text(final int slot) {
+        if (!present[slot]) {
+            return null;
+        }
+        switch (schema.type(slot)) {
+            case LONG:
+                return references[slot] != null ? (String) references[slot] : Long.toString(primitives[slot]);
+            case DOUBLE:
+                return references[slot] != null ? (String) references[slot] : doubleText(Double.longBitsToDouble(primitives[slot]));
+            case BOOLEAN:
+                return references[slot] != null ? (String) references[slot] : Boolean.toString(primitives[slot] != 0);
+            case STRING:
+                return (String) references[slot];
+            case ENUM:
+                return ((Enum<?>) references[slot]).name();
+            default:
+                throw new IllegalStateException("Unknown type: " + schema.type(slot));
+        }
+    }
+
+    // 정수인 값은 long 처럼 소수점 없이 쓴다.
+    private static String doubleText(final double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 0x1p53) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private void setReference(final int slot, final Object value) {
+        final String previous = previous(slot);
+        if (value == null) {
+            reset(slot);
+        } else {
+            references[slot] = value;
+            present[slot] = true;
+        }
+        stored(slot, previous);
+    }
+
+    private void reset(final int slot) {
+        present[slot] = false;
+        references[slot] = null;
+        primitives[slot] = 0;
+    }
+
+    // 리스너가 없다면 이전 값을 문자열로 만들지 않는다.
+    private String previous(final int slot) {
+        return hasListeners() ? text(slot) : null;
+    }
+
+    private void stored(final int slot, final String previous) {
+        if (hasListeners()) {
+            changed(schema.name(slot), previous, text(slot));
+        }
+    }
+
+    // 슬롯으로 읽어도 ReteEngine 이 읽은 팩트를 알 수 있도록 이름으로 기록한다.
+    private void recordRead(final int slot) {
+        if (isTrackingReads()) {
+            recordRead(schema.name(slot));
+        }
+    }
+
+    private void checkType(final int slot, final FactType expected) {
+        if (schema.type(slot) != expected) {
+            throw new IllegalArgumentException("Fact " + schema.name(slot) + " is " + schema.type(slot) + ", not " + expected);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package business;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgendaTest {
+
+    @Test
+    void shouldFireRulesBySalienceThenInsertionOrder() throws Exception {
+        // given
+        final List<String> fired = new ArrayList<>();
+        final Agenda agenda = new Agenda(ActivationStrategy.allMatch());
+        agenda.addRule(rule("low", -1, fired));
+        agenda.addRule(rule("first", 0, fired));
+        agenda.addRule(rule("high", 10, fired));
+        agenda.addRule(rule("second", 0, fired));
+
+        // when
+        final int count = agenda.run(new Facts());
+
+        // then
+        assertEquals(4, count);
+        assertEquals(List.of("high", "first", "second", "low"), fired);
+    }
+
+    @Test
+    void shouldStopEvaluatingAfterFirstMatch() throws Exception {
+        // given
+        final Facts facts = new Facts();
+        facts.addFact("jobTitle", "CEO");
+        final AtomicInteger evaluations = new AtomicInteger();
+        final List<String> fired = new ArrayList<>();
+        final Agenda agenda = new Agenda(ActivationStrategy.firstMatch());
+        agenda.addRule(f -> evaluations.incrementAndGet() > 0 && "CTO".equals(f.getFact("jobTitle")), f -> fired.add("cto"), 5);
+        agenda.addRule(f -> evaluations.incrementAndGet() > 0 && "CEO".equals(f.getFact("jobTitle")), f -> fired.add("ceo"), 5);
+        for (int i = 0; i < 100; i++) {
+            agenda.addRule(f -> evaluations.incrementAndGet() > 0, f -> fired.add("fallback"), 0);
+        }
+
+        // when
+        agenda.run(facts);
+
+        // then
+        assertEquals(List.of("ceo"), fired);
+        assertEquals(2, evaluations.get());
+    }
+
+    @Test
+    void shouldFireAtMostMaxMatches() throws Exception {
+        // given
+        final List<String> fired = new ArrayList<>();
+        final Agenda agenda = new Agenda(ActivationStrategy.maxMatches(2));
+        for (int i = 0; i < 5; i++) {
+            agenda.addRule(rule("rule" + i, i, fired));
+        }
+
+        // when
+        final int count = agenda.run(new Facts());
+
+        // then
+        assertEquals(2, count);
+        assertEquals(List.of("rule4", "rule3"), fired);
+        assertThrows(IllegalArgumentException.class, () -> ActivationStrategy.maxMatches(0));
+    }
+
+    @Test
+    void shouldNotSeeRulesAddedAfterSnapshot() throws Exception {
+        // given
+        final List<String> fired = new ArrayList<>();
+        final Agenda agenda = new Agenda(ActivationStrategy.allMatch());
+        agenda.addRule(rule("before", 0, fired));
+        final Agenda snapshot = agenda.snapshot();
+
+        // when
+        agenda.addRule(rule("after", 10, fired));
+        final int count = snapshot.run(new Facts());
+
+        // then
+        assertEquals(1, count);
+        assertEquals(List.of("before"), fired);
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.addRule(rule("late", 0, fired)));
+    }
+
+    private static Rule rule(final String name, final int salience, final List<String> fired) {
+        return RuleBuilder.when(facts -> true)
+            .then(facts -> fired.add(name))
+            .salience(salience)
+            .createRule();
+    }
+}
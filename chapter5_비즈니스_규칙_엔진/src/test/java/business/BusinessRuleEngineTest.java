@@ -2,6 +2,9 @@ package business;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -57,6 +60,97 @@ class BusinessRuleEngineTest {
         verify(mockAction).execute(mockFacts);
     }
 
+    @Test
+    void shouldFireOnlyHighestPriorityMatchingRule() throws Exception {
+        // given
+        final Facts facts = new Facts();
+        facts.addFact("stage", "CLOSED");
+        facts.addFact("amount", "1000");
+        final BusinessRuleEngine businessRuleEngine = new BusinessRuleEngine(facts, ActivationStrategy.firstMatch());
+        businessRuleEngine.addRule(RuleBuilder.when(f -> true)
+            .then(f -> f.addFact("forecastedAmount", "0"))
+            .createRule());
+        businessRuleEngine.addRule(RuleBuilder.when(Conditions.factEquals("stage", "CLOSED"))
+            .then(f -> f.addFact("forecastedAmount", f.getFact("amount")))
+            .salience(10)
+            .createRule());
+
+        // when
+        businessRuleEngine.run();
+
+        // then
+        assertEquals(2, businessRuleEngine.count());
+        assertEquals("1000", facts.getFact("forecastedAmount"));
+    }
+
+    @Test
+    void shouldExecuteActionsForEveryRecordInBatch() throws Exception {
+        // given
+        final BusinessRuleEngine businessRuleEngine = new BusinessRuleEngine(new Facts());
+        businessRuleEngine.addAction(facts -> facts.addFact("doubled", String.valueOf(Integer.parseInt(facts.getFact("amount")) * 2)));
+        final List<Facts> records = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            final Facts record = new Facts();
+            record.addFact("amount", String.valueOf(i));
+            records.add(record);
+        }
+
+        // when
+        businessRuleEngine.runAll(records);
+
+        // then
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(String.valueOf(i * 2), records.get(i).getFact("doubled"));
+        }
+    }
+
+    @Test
+    void shouldExecuteActionsForEveryRecordInStream() throws Exception {
+        // given
+        final BusinessRuleEngine businessRuleEngine = new BusinessRuleEngine(new Facts());
+        businessRuleEngine.addAction(facts -> facts.addFact("doubled", String.valueOf(Integer.parseInt(facts.getFact("amount")) * 2)));
+        final List<Facts> records = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            final Facts record = new Facts();
+            record.addFact("amount", String.valueOf(i));
+            records.add(record);
+        }
+
+        // when
+        businessRuleEngine.runAll(records.stream());
+
+        // then
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(String.valueOf(i * 2), records.get(i).getFact("doubled"));
+        }
+    }
+
+    @Test
+    void shouldReuseScratchFactsWithoutLeakingBetweenRecords() throws Exception {
+        // given
+        final BusinessRuleEngine businessRuleEngine = new BusinessRuleEngine(new Facts());
+        businessRuleEngine.addAction(facts -> {
+            if ("CEO".equals(facts.getFact("jobTitle"))) {
+                facts.addFact("mail", "sent");
+            }
+        });
+        final List<String> jobTitles = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            jobTitles.add(i % 3 == 0 ? "CEO" : "CTO");
+        }
+
+        // when
+        final List<String> mails = businessRuleEngine.runAll(jobTitles,
+            (jobTitle, facts) -> facts.addFact("jobTitle", jobTitle),
+            facts -> facts.getFact("mail"));
+
+        // then
+        assertEquals(jobTitles.size(), mails.size());
+        for (int i = 0; i < mails.size(); i++) {
+            assertEquals(i % 3 == 0 ? "sent" : null, mails.get(i));
+        }
+    }
+
     // 위 테스트가 통과 하므로 Facts 를 이용한 액션 로직 사용 가능
     /*
      직함이 CEO 인 경우 메일 발송
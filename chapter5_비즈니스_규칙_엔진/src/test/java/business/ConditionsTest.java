@@ -0,0 +1,52 @@
+package business;
+
+import org.junit.jupiter.api.Test;
+
+import static business.Conditions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConditionsTest {
+
+    @Test
+    void shouldEvaluateStructuredConditions() throws Exception {
+        final Facts facts = new Facts();
+        facts.addFact("jobTitle", "CEO");
+        facts.addFact("stage", "LEAD");
+        facts.addFact("amount", "1500");
+
+        assertTrue(factEquals("jobTitle", "CEO").evaluate(facts));
+        assertTrue(factIn("stage", "LEAD", "INTERESTED").evaluate(facts));
+        assertFalse(factIn("stage", "CLOSED").evaluate(facts));
+        assertTrue(greaterThan("amount", 1000).evaluate(facts));
+        assertFalse(lessThanOrEqual("amount", 1000).evaluate(facts));
+        assertFalse(greaterThan("name", 0).evaluate(facts));
+        assertTrue(and(factEquals("jobTitle", "CEO"), greaterThanOrEqual("amount", 1500)).evaluate(facts));
+        assertTrue(or(factEquals("jobTitle", "CTO"), lessThan("amount", 2000)).evaluate(facts));
+        assertTrue(not(factEquals("jobTitle", "CTO")).evaluate(facts));
+    }
+
+    @Test
+    void shouldTreatConditionsWithSameStructureAsEqual() throws Exception {
+        final Condition first = and(factEquals("jobTitle", "CEO"), greaterThan("amount", 1000));
+        final Condition second = and(factEquals("jobTitle", "CEO"), greaterThan("amount", 1000));
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertEquals(factIn("stage", "LEAD", "CLOSED"), factIn("stage", "CLOSED", "LEAD"));
+        assertNotEquals(factEquals("jobTitle", "CEO"), factEquals("jobTitle", "CTO"));
+    }
+
+    @Test
+    void shouldEvaluateValueComparisonsBeforeLambdas() throws Exception {
+        final Facts facts = new Facts();
+        facts.addFact("jobTitle", "CTO");
+        final Condition lambda = f -> {
+            throw new AssertionError("lambda should not be evaluated");
+        };
+
+        final Condition condition = and(lambda, factEquals("jobTitle", "CEO"));
+
+        assertFalse(condition.evaluate(facts));
+        assertEquals(factEquals("jobTitle", "CEO"), Conditions.indexKey(condition));
+    }
+}
@@ -19,6 +19,36 @@ class InspectorTest {
         assertEquals(1, reports.size());
     }
 
+    @Test
+    void inspectStopsAfterFirstPositiveCondition() throws Exception {
+        final Facts facts = new Facts();
+        facts.addFact("jobTitle", "CEO");
+        final Inspector inspector = new Inspector(ActivationStrategy.firstMatch(),
+            new JobTitleCondition(), new JobTitleCondition(), new JobTitleCondition());
+
+        final List<Report> reports = inspector.inspect(facts);
+        assertEquals(1, reports.size());
+        assertTrue(reports.get(0).isPositive());
+    }
+
+    @Test
+    void inspectEvaluatesHigherSalienceConditionsFirst() throws Exception {
+        final Facts facts = new Facts();
+        facts.addFact("jobTitle", "CEO");
+        final ConditionalAction low = new JobTitleCondition();
+        final ConditionalAction high = new JobTitleCondition() {
+            @Override
+            public int getSalience() {
+                return 10;
+            }
+        };
+        final Inspector inspector = new Inspector(ActivationStrategy.firstMatch(), low, high);
+
+        final List<Report> reports = inspector.inspect(facts);
+        assertEquals(1, reports.size());
+        assertSame(high, reports.get(0).getConditionalAction());
+    }
+
     // ISP 위반이다.
     // perform 메소드의 구현은 비어있고, UnsupportedOperationException 예외를 발생시킨다.
     // 필요 이상의 기능을 제공하는 ConditionalAction 과 결합되어 있다!!
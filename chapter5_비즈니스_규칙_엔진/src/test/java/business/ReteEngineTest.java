@@ -0,0 +1,216 @@
+package business;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReteEngineTest {
+
+    @Test
+    void shouldEvaluateSharedConditionOnce() throws Exception {
+        // given
+        final Facts facts = new Facts();
+        facts.addFact("jobTitle", "CEO");
+        final AtomicInteger evaluations = new AtomicInteger();
+        final Condition isCeo = f -> {
+            evaluations.incrementAndGet();
+            return "CEO".equals(f.getFact("jobTitle"));
+        };
+        final List<String> fired = new ArrayList<>();
+        final ReteEngine engine = new ReteEngine(facts);
+        engine.addRule(RuleBuilder.when(isCeo).then(f -> fired.add("mail")).createRule());
+        engine.addRule(RuleBuilder.when(isCeo).then(f -> fired.add("report")).createRule());
+
+        // when
+        engine.run();
+
+        // then
+        assertEquals(1, engine.nodeCount());
+        assertEquals(1, evaluations.get());
+        assertEquals(List.of("mail", "report"), fired);
+    }
+
+    @Test
+    void shouldEvaluateSharedOperandOfAndConditionsOnce() throws Exception {
+        // given
+        final Facts facts = new Facts();
+        facts.addFact("jobTitle", "CEO");
+        facts.addFact("stage", "CLOSED");
+        final AtomicInteger evaluations = new AtomicInteger();
+        final Condition isCeo = f -> {
+            evaluations.incrementAndGet();
+            return "CEO".equals(f.getFact("jobTitle"));
+        };
+        final List<String> fired = new ArrayList<>();
+        final ReteEngine engine = new ReteEngine(facts);
+        engine.addRule(Conditions.and(isCeo, f -> f.getFact("stage") != null), f -> fired.add("mail"));
+        engine.addRule(Conditions.and(isCeo, Conditions.factEquals("stage", "CLOSED")), f -> fired.add("invoice"));
+
+        // when
+        engine.run();
+
+        // then
+        assertEquals(3, engine.nodeCount());
+        assertEquals(1, evaluations.get());
+        assertEquals(List.of("mail", "invoice"), fired);
+    }
+
+    @Test
+    void shouldStopListeningToFactsWhenClosed() throws Exception {
+        // given
+        final Facts facts = new Facts();
+        final ReteEngine engine = new ReteEngine(facts);
+
+        // when
+        engine.close();
+
+        // then
+        assertFalse(facts.hasListeners());
+    }
+
+    @Test
+    void shouldReevaluateOnlyConditionsReadingChangedFact() throws Exception {
+        // given
+        final Facts facts = new Facts();
+        facts.addFact("jobTitle", "CTO");
+        facts.addFact("stage", "LEAD");
+        final AtomicInteger jobTitleEvaluations = new AtomicInteger();
+        final AtomicInteger stageEvaluations = new AtomicInteger();
+        final List<String> fired = new ArrayList<>();
+        final ReteEngine engine = new ReteEngine(facts);
+        engine.addRule(f -> {
+            jobTitleEvaluations.incrementAndGet();
+            return "CEO".equals(f.getFact("jobTitle"));
+        }, f -> fired.add("mail"));
+        engine.addRule(f -> {
+            stageEvaluations.incrementAndGet();
+            return Stage.CLOSED.name().equals(f.getFact("stage"));
+        }, f -> fired.add("invoice"));
+        engine.run();
+
+        // when
+        facts.addFact("jobTitle", "CEO");
+        facts.addFact("name", "Mark");
+        engine.run();
+
+        // then
+        assertEquals(2, jobTitleEvaluations.get());
+        assertEquals(1, stageEvaluations.get());
+        assertEquals(List.of("mail"), fired);
+    }
+
+    @Test
+    void shouldReevaluateConditionsReadingSlotsWhenSlotChanges() throws Exception {
+        // given
+        final FactSchema schema = FactSchema.builder().doubleFact("amount").build();
+        final int amount = schema.slot("amount");
+        final SlotFacts facts = new SlotFacts(schema);
+        facts.setDouble(amount, 500);
+        final List<String> fired = new ArrayList<>();
+        final ReteEngine engine = new ReteEngine(facts);
+        engine.addRule(f -> ((SlotFacts) f).getDouble(amount) > 1000, f -> fired.add("discount"));
+        engine.run();
+
+        // when
+        facts.setDouble(amount, 2000);
+        engine.run();
+
+        // then
+        assertEquals(List.of("discount"), fired);
+    }
+
+    @Test
+    void shouldChainRulesThroughChangedFacts() throws Exception {
+        // given
+        final Facts facts = new Facts();
+        facts.addFact("stage", "CLOSED");
+        facts.addFact("amount", "1000");
+        final ReteEngine engine = new ReteEngine(facts);
+        // 뒤에 등록된 규칙이 앞 규칙이 읽는 팩트를 만든다.
+        engine.addRule(f -> f.getFact("forecastedAmount") != null,
+            f -> f.addFact("notified", "true"));
+        engine.addRule(f -> Stage.CLOSED.name().equals(f.getFact("stage")),
+            f -> f.addFact("forecastedAmount", f.getFact("amount")));
+
+        // when
+        engine.run();
+
+        // then
+        assertEquals("1000", facts.getFact("forecastedAmount"));
+        assertEquals("true", facts.getFact("notified"));
+    }
+
+    @Test
+    void shouldEvaluateOnlyRulesIndexedUnderCurrentFactValue() throws Exception {
+        // given
+        final Facts facts = new Facts();
+        facts.addFact("jobTitle", "title3");
+        final AtomicInteger evaluations = new AtomicInteger();
+        final List<String> fired = new ArrayList<>();
+        final ReteEngine engine = new ReteEngine(facts);
+        for (int i = 0; i < 100; i++) {
+            final String title = "title" + i;
+            engine.addRule(RuleBuilder
+                .when(f -> evaluations.incrementAndGet() > 0)
+                .and(Conditions.factEquals("jobTitle", title))
+                .then(f -> fired.add(title))
+                .createRule());
+        }
+
+        // when
+        engine.run();
+        facts.addFact("jobTitle", "title5");
+        engine.run();
+
+        // then
+        assertEquals(2, evaluations.get());
+        assertEquals(List.of("title3", "title5"), fired);
+    }
+
+    @Test
+    void shouldShareNodeBetweenEqualStructuredConditions() throws Exception {
+        // given
+        final Facts facts = new Facts();
+        facts.addFact("amount", "2000");
+        final ReteEngine engine = new ReteEngine(facts);
+
+        // when
+        engine.addRule(Conditions.greaterThan("amount", 1000), f -> {});
+        engine.addRule(Conditions.greaterThan("amount", 1000), f -> {});
+
+        // then
+        assertEquals(1, engine.nodeCount());
+    }
+
+    @Test
+    void shouldFireHigherSalienceRulesFirst() throws Exception {
+        // given
+        final List<String> fired = new ArrayList<>();
+        final ReteEngine engine = new ReteEngine(new Facts());
+        engine.addRule(RuleBuilder.when(f -> true).then(f -> fired.add("low")).createRule());
+        engine.addRule(RuleBuilder.when(f -> true).then(f -> fired.add("high")).salience(5).createRule());
+
+        // when
+        engine.run();
+
+        // then
+        assertEquals(List.of("high", "low"), fired);
+    }
+
+    @Test
+    void shouldStopRulesThatNeverSettle() throws Exception {
+        // given
+        final Facts facts = new Facts();
+        facts.addFact("counter", "0");
+        final ReteEngine engine = new ReteEngine(facts);
+        engine.addRule(f -> f.getFact("counter") != null,
+            f -> f.addFact("counter", String.valueOf(Integer.parseInt(f.getFact("counter")) + 1)));
+
+        // when, then
+        assertThrows(IllegalStateException.class, engine::run);
+    }
+}
@@ -0,0 +1,155 @@
+package business;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static business.Conditions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleCompilerTest {
+
+    @Test
+    void shouldProduceSameFactsAsPerformingRulesInOrder() throws Exception {
+        // given
+        final List<Rule> rules = new ArrayList<>();
+        rules.add(RuleBuilder.when(factEquals("jobTitle", "CEO"))
+            .then(facts -> facts.addFact("mail", "sent")).createRule());
+        rules.add(RuleBuilder.when(factIn("stage", "LEAD", "INTERESTED"))
+            .and(greaterThan("amount", 1000))
+            .then(facts -> facts.addFact("forecastedAmount", String.valueOf(Double.parseDouble(facts.getFact("amount")) * 0.2)))
+            .createRule());
+        // 앞 규칙이 만든 팩트를 읽는다.
+        rules.add(RuleBuilder.when(or(greaterThanOrEqual("forecastedAmount", 300), factEquals("mail", "sent")))
+            .and(not(factEquals("stage", "CLOSED")))
+            .then(facts -> facts.addFact("priority", "high")).createRule());
+        rules.add(RuleBuilder.when(facts -> facts.getFact("name") != null)
+            .and(lessThanOrEqual("amount", 500))
+            .then(facts -> facts.addFact("greeting", "Dear " + facts.getFact("name"))).createRule());
+        rules.add(facts -> facts.addFact("inspected", "true"));
+        final Rule compiled = RuleCompiler.compile(rules);
+
+        for (final String[] record : records()) {
+            final Facts interpreted = facts(record);
+            final Facts compiledFacts = facts(record);
+
+            // when
+            rules.forEach(rule -> rule.perform(interpreted));
+            compiled.perform(compiledFacts);
+
+            // then
+            for (final String name : List.of("mail", "forecastedAmount", "priority", "greeting", "inspected")) {
+                assertEquals(interpreted.getFact(name), compiledFacts.getFact(name), name);
+            }
+        }
+    }
+
+    @Test
+    void shouldNotReadFactsOfShortCircuitedConditions() throws Exception {
+        // given
+        final Facts facts = new Facts();
+        facts.addFact("jobTitle", "CTO");
+        facts.addFact("amount", "2000");
+        final Rule compiled = RuleCompiler.compile(List.of(RuleBuilder.when(factEquals("jobTitle", "CEO"))
+            .and(greaterThan("amount", 1000))
+            .then(f -> f.addFact("mail", "sent")).createRule()));
+        final Set<String> reads = new HashSet<>();
+
+        // when
+        facts.trackReads(reads);
+        compiled.perform(facts);
+        facts.trackReads(null);
+
+        // then
+        assertEquals(Set.of("jobTitle"), reads);
+        assertNull(facts.getFact("mail"));
+    }
+
+    @Test
+    void shouldReadSchemaFactsOfSlotFactsBySlot() throws Exception {
+        // given
+        final FactSchema schema = FactSchema.builder()
+            .enumFact("stage", Stage.class)
+            .doubleFact("amount")
+            .build();
+        final List<String> lookups = new ArrayList<>();
+        final SlotFacts facts = new SlotFacts(schema) {
+            @Override
+            public String getFact(final String name) {
+                lookups.add(name);
+                return super.getFact(name);
+            }
+
+            @Override
+            double number(final String name) {
+                lookups.add(name);
+                return super.number(name);
+            }
+        };
+        facts.setEnum(schema.slot("stage"), Stage.LEAD);
+        facts.setDouble(schema.slot("amount"), 2000);
+        facts.addFact("name", "Mark");
+        final Rule compiled = RuleCompiler.compile(List.of(RuleBuilder.when(factEquals("stage", "LEAD"))
+            .and(greaterThan("amount", 1000))
+            .and(factEquals("name", "Mark"))
+            .then(f -> f.addFact("mail", "sent")).createRule()));
+
+        // when
+        compiled.perform(facts);
+
+        // then
+        assertEquals(List.of("name"), lookups);
+        assertEquals("sent", facts.getFact("mail"));
+    }
+
+    @Test
+    void shouldPerformNothingForEmptyRules() throws Exception {
+        final Facts facts = new Facts();
+
+        RuleCompiler.compile(List.of()).perform(facts);
+
+        assertNull(facts.getFact("mail"));
+    }
+
+    @Test
+    void shouldTreatEmptyAndAsTrue() throws Exception {
+        final Facts facts = new Facts();
+
+        RuleCompiler.compile(List.of(RuleBuilder.when(and())
+            .then(f -> f.addFact("mail", "sent")).createRule())).perform(facts);
+
+        assertEquals("sent", facts.getFact("mail"));
+    }
+
+    @Test
+    void shouldTreatEmptyOrAsFalse() throws Exception {
+        final Facts facts = new Facts();
+
+        RuleCompiler.compile(List.of(RuleBuilder.when(or())
+            .then(f -> f.addFact("mail", "sent")).createRule())).perform(facts);
+
+        assertNull(facts.getFact("mail"));
+    }
+
+    private static List<String[]> records() {
+        return List.of(
+            new String[]{"CEO", "CLOSED", "2000", "Mark"},
+            new String[]{"CTO", "LEAD", "2000", null},
+            new String[]{"CTO", "INTERESTED", "1200", "Jane"},
+            new String[]{"CTO", "LEAD", "400", "Jane"},
+            new String[]{null, "EVALUATING", "unknown", "Joe"}
+        );
+    }
+
+    private static Facts facts(final String[] record) {
+        final Facts facts = new Facts();
+        facts.addFact("jobTitle", record[0]);
+        facts.addFact("stage", record[1]);
+        facts.addFact("amount", record[2]);
+        facts.addFact("name", record[3]);
+        return facts;
+    }
+}
@@ -0,0 +1,134 @@
+package business;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotFactsTest {
+    private static final FactSchema SCHEMA = FactSchema.builder()
+        .stringFact("jobTitle")
+        .doubleFact("amount")
+        .longFact("employees")
+        .booleanFact("vip")
+        .enumFact("stage", Stage.class)
+        .build();
+    private static final int JOB_TITLE = SCHEMA.slot("jobTitle");
+    private static final int AMOUNT = SCHEMA.slot("amount");
+    private static final int EMPLOYEES = SCHEMA.slot("employees");
+    private static final int VIP = SCHEMA.slot("vip");
+    private static final int STAGE = SCHEMA.slot("stage");
+
+    @Test
+    void shouldStoreTypedValuesInSlots() throws Exception {
+        final SlotFacts facts = new SlotFacts(SCHEMA);
+
+        facts.setString(JOB_TITLE, "CEO");
+        facts.setDouble(AMOUNT, 1500.5);
+        facts.setLong(EMPLOYEES, 42);
+        facts.setBoolean(VIP, true);
+        facts.setEnum(STAGE, Stage.CLOSED);
+
+        assertEquals("CEO", facts.getString(JOB_TITLE));
+        assertEquals(1500.5, facts.getDouble(AMOUNT));
+        assertEquals(42, facts.getLong(EMPLOYEES));
+        assertTrue(facts.getBoolean(VIP));
+        assertEquals(Stage.CLOSED, facts.getEnum(STAGE, Stage.class));
+        assertThrows(IllegalArgumentException.class, () -> facts.getLong(AMOUNT));
+    }
+
+    @Test
+    void shouldKeepNameBasedFacade() throws Exception {
+        final SlotFacts facts = new SlotFacts(SCHEMA);
+
+        facts.addFact("amount", "2000");
+        facts.addFact("stage", "LEAD");
+        facts.addFact("name", "Mark");
+
+        assertEquals(2000.0, facts.getDouble(AMOUNT));
+        assertEquals(Stage.LEAD, facts.getEnum(STAGE, Stage.class));
+        assertEquals("2000", facts.getFact("amount"));
+        assertEquals("LEAD", facts.getFact("stage"));
+        assertEquals("Mark", facts.getFact("name"));
+        assertNull(facts.getFact("jobTitle"));
+        assertThrows(IllegalArgumentException.class, () -> facts.addFact("employees", "many"));
+    }
+
+    @Test
+    void shouldMatchNameBasedConditionsOnTypedFacts() throws Exception {
+        final SlotFacts facts = new SlotFacts(SCHEMA);
+        facts.addFact("amount", "2000");
+        facts.addFact("vip", "TRUE");
+
+        assertTrue(Conditions.factEquals("amount", "2000").evaluate(facts));
+        assertEquals("TRUE", facts.getFact("vip"));
+
+        facts.setDouble(AMOUNT, 3000);
+        assertEquals("3000", facts.getFact("amount"));
+        facts.setDouble(AMOUNT, 0.5);
+        assertEquals("0.5", facts.getFact("amount"));
+    }
+
+    @Test
+    void shouldReuseSlotFactsAsBatchScratch() throws Exception {
+        final BusinessRuleEngine engine = new BusinessRuleEngine(new Facts());
+        engine.addAction(f -> {
+            if (f instanceof SlotFacts && ((SlotFacts) f).getDouble(AMOUNT) > 1000) {
+                f.addFact("vip", "true");
+            }
+        });
+        final List<Double> amounts = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            amounts.add(i * 20.0);
+        }
+
+        final List<String> vips = engine.runAll(amounts,
+            (amount, f) -> ((SlotFacts) f).setDouble(AMOUNT, amount),
+            f -> f.getFact("vip"),
+            () -> new SlotFacts(SCHEMA));
+
+        for (int i = 0; i < amounts.size(); i++) {
+            assertEquals(amounts.get(i) > 1000 ? "true" : null, vips.get(i));
+        }
+    }
+
+    @Test
+    void shouldReuseSlotsAcrossRecords() throws Exception {
+        final SlotFacts facts = new SlotFacts(SCHEMA);
+        facts.setString(JOB_TITLE, "CEO");
+        facts.addFact("name", "Mark");
+
+        facts.clear();
+        facts.setDouble(AMOUNT, 10);
+
+        assertFalse(facts.has(JOB_TITLE));
+        assertTrue(facts.has(AMOUNT));
+        assertNull(facts.getFact("jobTitle"));
+        assertNull(facts.getFact("name"));
+    }
+
+    @Test
+    void shouldFireRulesOnTypedFacts() throws Exception {
+        // given
+        final SlotFacts facts = new SlotFacts(SCHEMA);
+        facts.setEnum(STAGE, Stage.LEAD);
+        facts.setDouble(AMOUNT, 500);
+        final List<String> fired = new ArrayList<>();
+        final ReteEngine engine = new ReteEngine(facts);
+        engine.addRule(RuleBuilder.when(Conditions.factEquals("stage", "CLOSED"))
+            .and(Conditions.greaterThan("amount", 1000))
+            .then(f -> fired.add("invoice"))
+            .createRule());
+        engine.run();
+
+        // when
+        facts.setEnum(STAGE, Stage.CLOSED);
+        facts.setDouble(AMOUNT, 1500);
+        engine.run();
+
+        // then
+        assertEquals(List.of("invoice"), fired);
+    }
+}
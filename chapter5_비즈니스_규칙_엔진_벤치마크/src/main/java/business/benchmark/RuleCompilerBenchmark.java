@@ -0,0 +1,71 @@
+package business.benchmark;
+
+import business.Facts;
+import business.Rule;
+import business.RuleBuilder;
+import business.RuleCompiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static business.Conditions.factEquals;
+import static business.Conditions.greaterThan;
+
+/**
+ * 컴파일된 규칙과 규칙을 순서대로 perform 하는 비용
+ *
+ * 규칙은 factEquals(jobTitle).and(greaterThan(amount)) 모양이고 어느 규칙도 실행되지 않는다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RuleCompilerBenchmark {
+    @Param({"1000", "5000", "20000"})
+    private int ruleCount;
+
+    private final List<Rule> rules = new ArrayList<>();
+    private final Facts facts = new Facts();
+    private Rule compiled;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < ruleCount; i++) {
+            rules.add(RuleBuilder.when(factEquals("jobTitle", "title" + i))
+                .and(greaterThan("amount", i))
+                .then(f -> f.addFact("mail", "sent"))
+                .createRule());
+        }
+        compiled = RuleCompiler.compile(rules);
+        facts.addFact("jobTitle", "CTO");
+        facts.addFact("amount", "2000");
+    }
+
+    @Benchmark
+    public Facts perform() {
+        for (final Rule rule : rules) {
+            rule.perform(facts);
+        }
+        return facts;
+    }
+
+    @Benchmark
+    public Facts compiled() {
+        compiled.perform(facts);
+        return facts;
+    }
+}